@@ -0,0 +1,47 @@
+// 平台线程与虚拟线程模式的吞吐对比，分别在两种模式下启动后端各跑一次：
+//   java -jar target/tokomo_BE-0.0.1-SNAPSHOT.jar
+//   java -jar target/tokomo_BE-0.0.1-SNAPSHOT.jar --spring.profiles.active=vthreads
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERNAME=... -e PASSWORD=... -e GAME_ID=1 loadtest/virtual-threads.js
+// 对比 http_reqs（吞吐）与 http_req_duration 的 p95/p99
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const GAME_ID = __ENV.GAME_ID || '1';
+const KEYWORDS = ['dragon', 'quest', 'fantasy', 'souls', '勇者', '传说'];
+
+export const options = {
+  scenarios: {
+    ramp: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: 200 },
+        { duration: '1m', target: 1000 },
+        { duration: '2m', target: 1000 },
+        { duration: '30s', target: 0 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function setup() {
+  const res = http.post(`${BASE_URL}/api/user/login`,
+    JSON.stringify({ username: __ENV.USERNAME, password: __ENV.PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } });
+  check(res, { 'login ok': (r) => r.status === 200 });
+  return { token: res.json('data.token') };
+}
+
+export default function (data) {
+  const params = { headers: { Authorization: `Bearer ${data.token}` } };
+  const keyword = KEYWORDS[Math.floor(Math.random() * KEYWORDS.length)];
+
+  const responses = http.batch([
+    ['GET', `${BASE_URL}/api/games/search?keyword=${encodeURIComponent(keyword)}`, null, params],
+    ['GET', `${BASE_URL}/api/games/${GAME_ID}`, null, params],
+    ['GET', `${BASE_URL}/api/user/profile`, null, params],
+  ]);
+  responses.forEach((res) => check(res, { 'status 2xx/403': (r) => r.status < 300 || r.status === 403 }));
+}
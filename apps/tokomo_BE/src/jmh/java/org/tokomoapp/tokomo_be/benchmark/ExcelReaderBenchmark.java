@@ -0,0 +1,94 @@
+package org.tokomoapp.tokomo_be.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.model.PaymentCode;
+import org.tokomoapp.tokomo_be.model.VipCode;
+import org.tokomoapp.tokomo_be.util.ExcelGameReader;
+import org.tokomoapp.tokomo_be.util.ExcelPaymentReader;
+import org.tokomoapp.tokomo_be.util.ExcelVipReader;
+
+/**
+ * 三个 Excel 读取器在生成的 .xlsx 上的耗时，streaming 系列强制走 SAX 流式读取
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx2g" })
+public class ExcelReaderBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int rows;
+
+    private Path dir;
+    private String gamesFile;
+    private String codesFile;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("excel-benchmark");
+        Path games = dir.resolve("games.xlsx");
+        Path codes = dir.resolve("codes.xlsx");
+        Fixtures.writeGamesWorkbook(games, rows);
+        Fixtures.writeCodesWorkbook(codes, rows);
+        gamesFile = games.toString();
+        codesFile = codes.toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(dir.resolve("games.xlsx"));
+        Files.deleteIfExists(dir.resolve("codes.xlsx"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public List<Game> readGames() throws Exception {
+        return ExcelGameReader.readGamesFromExcel(gamesFile);
+    }
+
+    @Benchmark
+    public void readGamesStreaming(Blackhole blackhole) throws Exception {
+        ExcelGameReader.readGamesFromExcel(gamesFile, 0, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<VipCode> readVipCodes() throws Exception {
+        return ExcelVipReader.readVipCodesFromExcel(codesFile);
+    }
+
+    @Benchmark
+    public void readVipCodesStreaming(Blackhole blackhole) throws Exception {
+        ExcelVipReader.readVipCodesFromExcel(codesFile, 0, blackhole::consume);
+    }
+
+    @Benchmark
+    public List<PaymentCode> readPaymentCodes() throws Exception {
+        return ExcelPaymentReader.readPaymentCodesFromExcel(codesFile);
+    }
+
+    @Benchmark
+    public void readPaymentCodesStreaming(Blackhole blackhole) throws Exception {
+        ExcelPaymentReader.readPaymentCodesFromExcel(codesFile, 0, blackhole::consume);
+    }
+}
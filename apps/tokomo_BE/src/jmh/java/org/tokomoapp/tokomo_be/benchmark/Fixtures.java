@@ -0,0 +1,102 @@
+package org.tokomoapp.tokomo_be.benchmark;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.tokomoapp.tokomo_be.model.Game;
+
+/**
+ * 基准测试用的合成数据，固定随机种子，保证每次运行数据一致
+ */
+final class Fixtures {
+
+    static final String[] WORDS = {
+        "Dragon", "Quest", "Final", "Fantasy", "Legend", "Star", "Ocean", "Sword", "Shadow", "Knight",
+        "Tales", "Chronicle", "Hero", "Dark", "Souls", "Racing", "Puzzle", "Island", "Memory", "Story",
+        "勇者", "传说", "幻想", "物语", "剑", "魔法", "少女", "学园", "冒险", "战记"
+    };
+
+    static final String[] TYPES = { "RPG", "ACT", "SLG", "AVG", "FTG", "STG", "PUZ", "RAC" };
+
+    private Fixtures() {
+    }
+
+    static List<Game> games(int count) {
+        Random random = new Random(42);
+        List<Game> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Game game = new Game();
+            game.setId((long) i + 1);
+            game.setGameType(TYPES[random.nextInt(TYPES.length)]);
+            game.setGameName(gameName(random, i));
+            game.setDownloadUrl("https://pan.example.com/s/" + Long.toHexString(random.nextLong()));
+            game.setPassword(Integer.toString(1000 + random.nextInt(9000)));
+            game.setExtractPassword("tokomo");
+            game.setNote("");
+            games.add(game);
+        }
+        return games;
+    }
+
+    // 2~4 个词加编号，编号保证名称唯一
+    static String gameName(Random random, int index) {
+        StringBuilder name = new StringBuilder();
+        int words = 2 + random.nextInt(3);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            name.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return name.append(' ').append(index).toString();
+    }
+
+    static void writeGamesWorkbook(Path file, int rows) throws IOException {
+        List<Game> games = games(rows);
+        writeWorkbook(file, new String[] { "id", "type", "name", "url", "password", "extract", "note" }, rows, (row, i) -> {
+            Game game = games.get(i);
+            row.createCell(0).setCellValue(game.getId());
+            row.createCell(1).setCellValue(game.getGameType());
+            row.createCell(2).setCellValue(game.getGameName());
+            row.createCell(3).setCellValue(game.getDownloadUrl());
+            row.createCell(4).setCellValue(game.getPassword());
+            row.createCell(5).setCellValue(game.getExtractPassword());
+            row.createCell(6).setCellValue(game.getNote());
+        });
+    }
+
+    static void writeCodesWorkbook(Path file, int rows) throws IOException {
+        writeWorkbook(file, new String[] { "code", "value", "status" }, rows, (row, i) -> {
+            row.createCell(0).setCellValue(String.format("CODE%028d", i));
+            row.createCell(1).setCellValue(30);
+            row.createCell(2).setCellValue(i % 2 == 0 ? "未使用" : "已使用");
+        });
+    }
+
+    private interface RowWriter {
+        void write(Row row, int index);
+    }
+
+    private static void writeWorkbook(Path file, String[] header, int rows, RowWriter writer) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(1000);
+             FileOutputStream out = new FileOutputStream(file.toFile())) {
+            Sheet sheet = workbook.createSheet();
+            Row headerRow = sheet.createRow(0);
+            for (int c = 0; c < header.length; c++) {
+                headerRow.createCell(c).setCellValue(header[c]);
+            }
+            for (int i = 0; i < rows; i++) {
+                writer.write(sheet.createRow(i + 1), i);
+            }
+            workbook.write(out);
+            workbook.dispose();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.tokomoapp.tokomo_be.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+
+/**
+ * 容错搜索（mode=fuzzy）延迟，SampleTime 模式输出 p50/p99 等分位数。
+ * 延迟目标：1M 目录下 p99 不超过 20ms，超出时应调整 FuzzyIndex 的编辑距离或词条规则。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class FuzzySearchBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int catalogSize;
+
+    // 错字、多词错字、汉字全拼、拼音首字母、同音错字、不存在的词
+    @Param({ "dragn", "fantsy quest", "chuanshuo", "cs", "传硕", "zzzz" })
+    public String keyword;
+
+    @Param({ "20" })
+    public int limit;
+
+    private GameSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new GameSearchIndex();
+        index.rebuild(Fixtures.games(catalogSize));
+    }
+
+    @Benchmark
+    public long[] fuzzySearch() {
+        return index.fuzzySearchIds(keyword, limit);
+    }
+}
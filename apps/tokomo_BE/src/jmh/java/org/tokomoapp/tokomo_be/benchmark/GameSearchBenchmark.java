@@ -0,0 +1,68 @@
+package org.tokomoapp.tokomo_be.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tokomoapp.tokomo_be.cache.GameCatalog;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+import org.tokomoapp.tokomo_be.util.GameSearchUtil;
+
+/**
+ * 游戏名称搜索：GameSearchUtil 线性扫描 vs GameSearchIndex 三元组索引，以及前缀树输入提示。
+ * ngramIndex 与线上路径一致：索引只返回 id，游戏对象从 GameCatalog 快照中取出
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class GameSearchBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int catalogSize;
+
+    // 常见词、少见组合、短关键字（走扫描分支）、不存在的词
+    @Param({ "dragon", "souls racing", "剑", "zzzz" })
+    public String keyword;
+
+    private List<Game> games;
+    private GameSearchIndex index;
+    private GameCatalog catalog;
+
+    @Setup
+    public void setup() {
+        games = Fixtures.games(catalogSize);
+        index = new GameSearchIndex();
+        index.rebuild(games);
+        catalog = new GameCatalog();
+        catalog.replace(games);
+    }
+
+    @Benchmark
+    public List<Game> linearScan() {
+        return GameSearchUtil.searchGames(games, keyword);
+    }
+
+    @Benchmark
+    public List<Game> ngramIndex() {
+        return catalog.findSanitized(index.searchIds(keyword), 0, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public long[] prefixSuggest() {
+        return index.suggestIds(keyword, 10);
+    }
+}
@@ -0,0 +1,77 @@
+package org.tokomoapp.tokomo_be.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tokomoapp.tokomo_be.model.User;
+import org.tokomoapp.tokomo_be.util.JwtUtil;
+
+/**
+ * JwtUtil 签发与校验。uncached 系列把已验证 token 缓存设为 0，每次都做完整的签名校验。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil cached;
+    private JwtUtil uncached;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cached = jwtUtil(10000);
+        uncached = jwtUtil(0);
+        user = new User("benchmark", "hash", "question", "answer");
+        user.setId(42L);
+        token = cached.generateToken(user);
+    }
+
+    private static JwtUtil jwtUtil(int verifiedCacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "SECRET_KEY", "benchmark-secret-key-benchmark-secret-key-0123456789");
+        ReflectionTestUtils.setField(jwtUtil, "EXPIRATION_TIME", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", verifiedCacheSize);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return cached.validateToken(token);
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return cached.extractUserId(token);
+    }
+
+    @Benchmark
+    public boolean validateTokenUncached() {
+        return uncached.validateToken(token);
+    }
+
+    @Benchmark
+    public Long extractUserIdUncached() {
+        return uncached.extractUserId(token);
+    }
+}
@@ -0,0 +1,47 @@
+package org.tokomoapp.tokomo_be.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.model.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SanitizeBenchmark {
+
+    private User user;
+    private Game game;
+
+    @Setup
+    public void setup() {
+        user = new User("benchmark", "$2a$10$abcdefghijklmnopqrstuv", "question", "answer");
+        user.setId(42L);
+        user.setVipExpireDate(LocalDateTime.now().plusDays(30));
+        game = Fixtures.games(1).get(0);
+    }
+
+    @Benchmark
+    public User userSanitize() {
+        return user.sanitize();
+    }
+
+    @Benchmark
+    public Game gameSanitize() {
+        return game.sanitize();
+    }
+}
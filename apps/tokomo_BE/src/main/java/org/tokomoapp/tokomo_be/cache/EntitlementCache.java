@@ -0,0 +1,147 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 用户已购游戏缓存（用户 id -> 有序的游戏 id 数组）。
+ * 首次访问时从 user_games 加载，购买提交后由 UserGameServiceImpl 增量更新，
+ * 空闲超时的用户由 Caffeine 过期，超出容量时淘汰访问频率低的用户。
+ *
+ * 加载与写入并发时，加载结果可能不包含刚提交的购买。每次写入先递增用户所在分段的版本号，
+ * 加载方在放入缓存后发现版本号变化就撤销这次放入，下次访问重新加载。
+ */
+@Component
+public class EntitlementCache {
+
+    @Value("${entitlement.cache.idle-ms}")
+    private long idleMillis;
+
+    @Value("${entitlement.cache.max-users}")
+    private int maxUsers;
+
+    private static final int STRIPES = 1024;
+
+    private Cache<Long, Entitlements> cache;
+    // 按用户 id 分段的写入版本号
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMillis(idleMillis))
+            .maximumSize(maxUsers)
+            .recordStats()
+            .build();
+    }
+
+    public boolean owns(Long userId, Long gameId, Function<Long, Collection<Long>> loader) {
+        Entitlements entitlements = cache.getIfPresent(userId);
+        if (entitlements == null) {
+            // 不使用 Caffeine 的原子加载，加载结果要先与版本号比对；版本号需在查询数据库之前读取
+            long stamp = stamps.get(stripe(userId));
+            entitlements = new Entitlements(toSortedArray(loader.apply(userId)));
+            Entitlements existing = cache.asMap().putIfAbsent(userId, entitlements);
+            if (existing != null) {
+                entitlements = existing;
+            } else if (stamps.get(stripe(userId)) != stamp) {
+                // 加载期间有写入，结果可能已过期，只用于本次判断
+                cache.asMap().remove(userId, entitlements);
+            }
+        }
+        return entitlements.contains(gameId);
+    }
+
+    /**
+     * 记录一次已提交的购买，未加载的用户不做处理，下次访问时会从数据库加载
+     */
+    public void add(Long userId, Long gameId) {
+        stamps.incrementAndGet(stripe(userId));
+        // asMap().get 不计入命中统计
+        Entitlements entitlements = cache.asMap().get(userId);
+        if (entitlements != null) {
+            entitlements.add(gameId);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            stamps.incrementAndGet(stripe(userId));
+            cache.invalidate(userId);
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    private static int stripe(Long userId) {
+        return (Long.hashCode(userId) & Integer.MAX_VALUE) % STRIPES;
+    }
+
+    private static long[] toSortedArray(Collection<Long> gameIds) {
+        long[] ids = new long[gameIds.size()];
+        int i = 0;
+        for (Long id : gameIds) {
+            ids[i++] = id;
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * 写时复制的有序数组，读取不加锁
+     */
+    private static final class Entitlements {
+        private volatile long[] gameIds;
+
+        Entitlements(long[] gameIds) {
+            this.gameIds = gameIds;
+        }
+
+        boolean contains(long gameId) {
+            return Arrays.binarySearch(gameIds, gameId) >= 0;
+        }
+
+        synchronized void add(long gameId) {
+            long[] current = gameIds;
+            int pos = Arrays.binarySearch(current, gameId);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            long[] updated = new long[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, pos);
+            updated[pos] = gameId;
+            System.arraycopy(current, pos, updated, pos + 1, current.length - pos);
+            gameIds = updated;
+        }
+    }
+}
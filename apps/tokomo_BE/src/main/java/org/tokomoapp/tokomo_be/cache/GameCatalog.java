@@ -0,0 +1,263 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Component;
+import org.tokomoapp.tokomo_be.model.Game;
+
+/**
+ * 游戏目录的不可变内存快照，按 id 升序以列数组保存全部字段。
+ * 读取方通过一个 volatile 引用拿到当前快照，全程无锁；
+ * 写入方在数据库提交后基于旧快照复制出新快照并整体替换，单次写入的开销与目录大小成正比，
+ * 因此批量操作（合并、导入、清空）结束后只替换一次。
+ *
+ * 返回的 Game 都是按快照新建的对象，调用方修改不会影响快照。
+ */
+@Component
+public class GameCatalog {
+
+    private volatile Snapshot snapshot;
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.size;
+    }
+
+    public Optional<Game> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Snapshot current = snapshot;
+        int index = current.indexOf(id);
+        return index < 0 ? Optional.empty() : Optional.of(current.toGame(index));
+    }
+
+    public Optional<Game> findByName(String gameName) {
+        Snapshot current = snapshot;
+        Integer index = current.indexByName.get(gameName);
+        return index == null ? Optional.empty() : Optional.of(current.toGame(index));
+    }
+
+    public List<Game> findAll() {
+        Snapshot current = snapshot;
+        List<Game> games = new ArrayList<>(current.size);
+        for (int i = 0; i < current.size; i++) {
+            games.add(current.toGame(i));
+        }
+        return games;
+    }
+
+    /**
+     * 只取出 ids[offset, offset + limit) 对应的游戏（已 sanitize），不存在的 id 直接跳过
+     */
+    public List<Game> findSanitized(long[] ids, int offset, int limit) {
+        Snapshot current = snapshot;
+        int from = Math.min(offset, ids.length);
+        int to = (int) Math.min((long) from + limit, ids.length);
+        List<Game> games = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            int index = current.indexOf(ids[i]);
+            if (index >= 0) {
+                Game game = new Game();
+                game.setId(current.ids[index]);
+                game.setGameType(current.types[index]);
+                game.setGameName(current.names[index]);
+                games.add(game);
+            }
+        }
+        return games;
+    }
+
+    public synchronized void replace(Collection<Game> games) {
+        TreeMap<Long, Game> sorted = new TreeMap<>();
+        for (Game game : games) {
+            if (game != null && game.getId() != null) {
+                sorted.put(game.getId(), game);
+            }
+        }
+        Builder builder = new Builder(sorted.size());
+        sorted.values().forEach(builder::add);
+        snapshot = builder.build();
+    }
+
+    public synchronized void upsert(Collection<Game> games) {
+        apply(games, List.of());
+    }
+
+    public synchronized void remove(Collection<Long> ids) {
+        apply(List.of(), ids);
+    }
+
+    // 旧快照与按 id 排序的变更做一次归并，生成新快照；快照尚未建立时忽略，启动时会整体加载
+    private void apply(Collection<Game> upserts, Collection<Long> removedIds) {
+        Snapshot current = snapshot;
+        if (current == null || (upserts.isEmpty() && removedIds.isEmpty())) {
+            return;
+        }
+        TreeMap<Long, Game> changed = new TreeMap<>();
+        for (Game game : upserts) {
+            if (game != null && game.getId() != null) {
+                changed.put(game.getId(), game);
+            }
+        }
+        Set<Long> removed = new HashSet<>(removedIds);
+
+        Builder builder = new Builder(current.size + changed.size());
+        Iterator<Game> it = changed.values().iterator();
+        Game next = it.hasNext() ? it.next() : null;
+        int i = 0;
+        while (i < current.size || next != null) {
+            if (next == null || (i < current.size && current.ids[i] < next.getId())) {
+                if (!removed.contains(current.ids[i])) {
+                    builder.add(current, i);
+                }
+                i++;
+            } else {
+                if (i < current.size && current.ids[i] == next.getId()) {
+                    i++;
+                }
+                if (!removed.contains(next.getId())) {
+                    builder.add(next);
+                }
+                next = it.hasNext() ? it.next() : null;
+            }
+        }
+        snapshot = builder.build();
+    }
+
+    /**
+     * 构建完成后不再修改
+     */
+    private static final class Snapshot {
+        final int size;
+        final long[] ids;
+        final String[] types;
+        final String[] names;
+        final String[] downloadUrls;
+        final String[] passwords;
+        final String[] extractPasswords;
+        final String[] notes;
+        // id -> 下标的开放寻址表，slots 保存下标 + 1，0 表示空位
+        final long[] slotIds;
+        final int[] slots;
+        final Map<String, Integer> indexByName;
+
+        Snapshot(Builder b) {
+            size = b.size;
+            ids = Arrays.copyOf(b.ids, size);
+            types = Arrays.copyOf(b.types, size);
+            names = Arrays.copyOf(b.names, size);
+            downloadUrls = Arrays.copyOf(b.downloadUrls, size);
+            passwords = Arrays.copyOf(b.passwords, size);
+            extractPasswords = Arrays.copyOf(b.extractPasswords, size);
+            notes = Arrays.copyOf(b.notes, size);
+
+            int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+            slotIds = new long[capacity];
+            slots = new int[capacity];
+            Map<String, Integer> byName = new HashMap<>(size * 4 / 3 + 1);
+            for (int i = 0; i < size; i++) {
+                int slot = slot(ids[i]);
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                slotIds[slot] = ids[i];
+                slots[slot] = i + 1;
+                if (names[i] != null) {
+                    byName.put(names[i], i);
+                }
+            }
+            indexByName = Collections.unmodifiableMap(byName);
+        }
+
+        int indexOf(long id) {
+            int slot = slot(id);
+            while (slots[slot] != 0) {
+                if (slotIds[slot] == id) {
+                    return slots[slot] - 1;
+                }
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            return -1;
+        }
+
+        private int slot(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & (slots.length - 1);
+        }
+
+        Game toGame(int i) {
+            Game game = new Game();
+            game.setId(ids[i]);
+            game.setGameType(types[i]);
+            game.setGameName(names[i]);
+            game.setDownloadUrl(downloadUrls[i]);
+            game.setPassword(passwords[i]);
+            game.setExtractPassword(extractPasswords[i]);
+            game.setNote(notes[i]);
+            return game;
+        }
+    }
+
+    private static final class Builder {
+        long[] ids;
+        String[] types;
+        String[] names;
+        String[] downloadUrls;
+        String[] passwords;
+        String[] extractPasswords;
+        String[] notes;
+        int size;
+
+        Builder(int capacity) {
+            ids = new long[capacity];
+            types = new String[capacity];
+            names = new String[capacity];
+            downloadUrls = new String[capacity];
+            passwords = new String[capacity];
+            extractPasswords = new String[capacity];
+            notes = new String[capacity];
+        }
+
+        void add(Game game) {
+            ids[size] = game.getId();
+            types[size] = game.getGameType();
+            names[size] = game.getGameName();
+            downloadUrls[size] = game.getDownloadUrl();
+            passwords[size] = game.getPassword();
+            extractPasswords[size] = game.getExtractPassword();
+            notes[size] = game.getNote();
+            size++;
+        }
+
+        void add(Snapshot s, int i) {
+            ids[size] = s.ids[i];
+            types[size] = s.types[i];
+            names[size] = s.names[i];
+            downloadUrls[size] = s.downloadUrls[i];
+            passwords[size] = s.passwords[i];
+            extractPasswords[size] = s.extractPasswords[i];
+            notes[size] = s.notes[i];
+            size++;
+        }
+
+        Snapshot build() {
+            return new Snapshot(this);
+        }
+    }
+}
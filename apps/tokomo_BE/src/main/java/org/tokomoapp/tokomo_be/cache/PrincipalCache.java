@@ -0,0 +1,114 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.tokomoapp.tokomo_be.model.User;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * JwtAuthenticationFilter 使用的用户身份缓存（用户 id -> 用户名、管理员标记、VIP 到期时间）。
+ * 条目写入 TTL 到期后重新加载，超出容量时由 Caffeine 淘汰，用户信息变更时由 UserServiceImpl 主动失效。
+ * 同一用户的并发未命中只加载一次。
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${auth.principal-cache.ttl-ms}")
+    private long ttlMillis;
+
+    @Value("${auth.principal-cache.max-size}")
+    private int maxSize;
+
+    private Cache<Long, CachedPrincipal> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+    }
+
+    public CachedPrincipal get(Long userId, Function<Long, User> loader) {
+        return cache.get(userId, id -> {
+            User user = loader.apply(id);
+            return new CachedPrincipal(
+                user.getUsername(),
+                Boolean.TRUE.equals(user.getIsAdmin()),
+                user.getVipExpireDate()
+            );
+        });
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    /**
+     * Caffeine 记录的命中、加载与淘汰统计，由 AppMetrics 导出
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    public static final class CachedPrincipal {
+        private final String username;
+        private final boolean admin;
+        private final LocalDateTime vipExpireDate;
+
+        CachedPrincipal(String username, boolean admin, LocalDateTime vipExpireDate) {
+            this.username = username;
+            this.admin = admin;
+            this.vipExpireDate = vipExpireDate;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public boolean isAdmin() {
+            return admin;
+        }
+
+        public LocalDateTime getVipExpireDate() {
+            return vipExpireDate;
+        }
+
+        // 每次请求按当前时间判断，缓存期间 VIP 到期也能及时生效
+        public boolean isVIP() {
+            return vipExpireDate != null && vipExpireDate.isAfter(LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 游戏搜索结果缓存（规范化关键字 -> 游戏 id 数组，精确搜索按 id 升序，容错搜索按得分排序）。
+ * 每个条目记录计算时的目录版本号，GameSearchIndex 有写入后版本号变化，旧条目在下次访问时重新计算。
+ * 容量按所有条目的 id 总数计算，而不是关键字个数：一个宽泛关键字的结果可能覆盖整个目录，
+ * 超出时由 Caffeine 淘汰访问频率低的条目。读取不加全局锁。
+ */
+@Component
+public class SearchResultCache {
+
+    @Value("${search.result-cache.max-ids}")
+    private long maxIds;
+
+    private Cache<String, CachedResult> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+            .maximumWeight(maxIds)
+            // 空结果也占一个单位，避免大量无结果关键字不计容量
+            .weigher((String key, CachedResult cached) -> cached.ids.length + 1)
+            .removalListener((String key, CachedResult cached, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    evictions.incrementAndGet();
+                }
+            })
+            .build();
+    }
+
+    /**
+     * 去掉首尾空白并统一小写，作为缓存键与实际查询的关键字
+     */
+    public static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * version 需在调用 loader 之前读取：计算期间目录发生变化时，
+     * 条目以旧版本号保存，下次访问即视为过期
+     */
+    public long[] get(String key, long version, Function<String, long[]> loader) {
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.version == version) {
+            hits.incrementAndGet();
+            return cached.ids;
+        }
+
+        // 不使用 Caffeine 的原子加载，避免慢查询期间阻塞同一哈希桶中的其他关键字
+        misses.incrementAndGet();
+        long[] ids = loader.apply(key);
+        cache.put(key, new CachedResult(version, ids));
+        return ids;
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static final class CachedResult {
+        private final long version;
+        private final long[] ids;
+
+        CachedResult(long version, long[] ids) {
+            this.version = version;
+            this.ids = ids;
+        }
+    }
+}
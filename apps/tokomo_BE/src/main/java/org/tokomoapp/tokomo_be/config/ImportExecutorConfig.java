@@ -0,0 +1,50 @@
+package org.tokomoapp.tokomo_be.config;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ImportExecutorConfig {
+
+    @Value("${import.executor.pool-size}")
+    private int poolSize;
+
+    @Value("${import.executor.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // JDK 21 以下 Spring Boot 会静默忽略 spring.threads.virtual.enabled，Tomcat 仍使用平台线程，
+    // 而连接池参数已按虚拟线程调整；此时直接启动失败，避免误以为已切换
+    @PostConstruct
+    public void checkRuntime() {
+        int feature = Runtime.version().feature();
+        if (virtualThreads && feature < 21) {
+            throw new IllegalStateException("spring.threads.virtual.enabled=true requires JDK 21 or later, "
+                + "but the application is running on JDK " + feature);
+        }
+    }
+
+    // 有界线程池：队列满时直接拒绝，不占用 Tomcat 线程排队
+    @Bean(name = "importExecutor")
+    public AsyncTaskExecutor importExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("import-");
+        if (virtualThreads) {
+            // 虚拟线程模式下仍保留池大小和队列上限，只把工作线程换成虚拟线程
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("import-").getVirtualThreadFactory());
+        }
+        executor.initialize();
+        return executor;
+    }
+}
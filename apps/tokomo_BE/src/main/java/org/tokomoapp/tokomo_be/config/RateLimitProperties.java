@@ -0,0 +1,36 @@
+package org.tokomoapp.tokomo_be.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * 接口限流配置，对应 application.properties 中的 rate-limit.*
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // 内存中最多保留的令牌桶数量，超出时按访问频率淘汰
+    private int maxKeys = 100000;
+
+    // 路由名 -> 限流规则，按配置顺序匹配第一条
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+        // Ant 风格路径，例如 /api/games/**
+        private String pattern;
+        // 桶容量，即允许的突发请求数
+        private int capacity;
+        // 每秒补充的令牌数
+        private double refillPerSecond;
+    }
+}
@@ -13,7 +13,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.tokomoapp.tokomo_be.cache.PrincipalCache;
 import org.tokomoapp.tokomo_be.filter.JwtAuthenticationFilter;
+import org.tokomoapp.tokomo_be.filter.RateLimitFilter;
 import org.tokomoapp.tokomo_be.service.UserService;
 import org.tokomoapp.tokomo_be.util.JwtUtil;
 
@@ -22,6 +24,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Arrays;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 
 @EnableMethodSecurity
@@ -31,13 +34,18 @@ public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
     private final ObjectMapper objectMapper;
+    private final PrincipalCache principalCache;
+    private final RateLimitProperties rateLimitProperties;
     @Autowired
     @Lazy
     private UserService userService;
 
-    public SecurityConfig(JwtUtil jwtUtil, ObjectMapper objectMapper) {
+    public SecurityConfig(JwtUtil jwtUtil, ObjectMapper objectMapper, PrincipalCache principalCache,
+                          RateLimitProperties rateLimitProperties) {
         this.jwtUtil = jwtUtil;
         this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
+        this.rateLimitProperties = rateLimitProperties;
     }
 
     @Bean
@@ -46,8 +54,10 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-            .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, objectMapper, userService), 
+            .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, objectMapper, userService, principalCache), 
                            UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new RateLimitFilter(rateLimitProperties, objectMapper),
+                           JwtAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/site-config").permitAll()
                 .requestMatchers("/api/user/login").permitAll()
@@ -67,6 +77,8 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000","http://www.tokomoapp.org","https://www.tokomoapp.org"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // 搜索结果总数，浏览器跨域请求默认读不到自定义响应头
+        configuration.setExposedHeaders(Arrays.asList("X-Total-Count"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -74,8 +86,9 @@ public class SecurityConfig {
         return source;
     }
 
+    // 调整强度后，旧哈希会在用户下次登录时按新强度重新计算
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 } 
\ No newline at end of file
@@ -6,13 +6,21 @@ import java.io.File;
 import java.util.HashMap;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -25,15 +33,27 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.tokomoapp.tokomo_be.cache.EntitlementCache;
+import org.tokomoapp.tokomo_be.cache.PrincipalCache;
+import org.tokomoapp.tokomo_be.cache.SearchResultCache;
+import org.tokomoapp.tokomo_be.dto.CursorPage;
 import org.tokomoapp.tokomo_be.dto.GameDTO;
+import org.tokomoapp.tokomo_be.dto.GameImportReport;
+import org.tokomoapp.tokomo_be.dto.GamePurgeResult;
+import org.tokomoapp.tokomo_be.dto.SiteConfigSnapshot;
 import org.tokomoapp.tokomo_be.model.ApiResponse;
 import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.model.ImportJob;
 import org.tokomoapp.tokomo_be.model.PaymentCode;
 import org.tokomoapp.tokomo_be.model.User;
 import org.tokomoapp.tokomo_be.model.VipCode;
 import org.tokomoapp.tokomo_be.dto.UserUpdateDTO;
+import org.tokomoapp.tokomo_be.exception.TooManyRequestsException;
 import org.tokomoapp.tokomo_be.service.GameService;
+import org.tokomoapp.tokomo_be.service.ImportJobService;
 import org.tokomoapp.tokomo_be.service.PaymentService;
+import org.tokomoapp.tokomo_be.service.SiteConfigService;
 import org.tokomoapp.tokomo_be.service.UserService;
 import org.tokomoapp.tokomo_be.service.VipService;
 import org.tokomoapp.tokomo_be.util.ExcelGameReader;
@@ -43,6 +63,8 @@ import org.tokomoapp.tokomo_be.util.ExcelPaymentReader;
 import org.springframework.beans.factory.annotation.Value;
 import java.nio.file.Path;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -60,10 +82,29 @@ public class AdminController {
     @Autowired
     private UserGameRepository userGameRepository;
     @Autowired
-    private ResourceLoader resourceLoader;
+    private SiteConfigService siteConfigService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PrincipalCache principalCache;
+    @Autowired
+    private EntitlementCache entitlementCache;
+    @Autowired
+    private SearchResultCache searchResultCache;
+    @Autowired
+    private ImportJobService importJobService;
+
+    @Value("${excel.streaming.threshold-bytes}")
+    private long streamingThreshold;
 
-    @Value("${config.path}")
-    private String configPath;
+    @Value("${admin.page.default-size}")
+    private int defaultPageSize;
+
+    @Value("${admin.page.max-size}")
+    private int maxPageSize;
+
+    @Value("${game.import.batch-size}")
+    private int importBatchSize;
 
     @Autowired
     public AdminController(GameService gameService, UserService userService) {
@@ -71,6 +112,18 @@ public class AdminController {
         this.userService = userService;
     }
 
+    @PostMapping(value = "/vip/genVip", params = "format=csv")
+    public ResponseEntity<StreamingResponseBody> generateVipCodesCsv(@RequestBody Map<String, Object> request) {
+        int amount = request.get("amount") != null ?
+            Integer.parseInt(request.get("amount").toString()) : 1;
+        int validDays = request.get("validDays") != null ?
+            Integer.parseInt(request.get("validDays").toString()) : 30;
+
+        List<VipCode> codes = vipService.generateVipCodes(amount, validDays);
+        return streamCsv("vip-codes.csv", "code,validDays", codes,
+            code -> code.getCode() + "," + code.getValidDays());
+    }
+
     @PostMapping("/vip/genVip")
     public ResponseEntity<ApiResponse> generateVipCodes(@RequestBody Map<String, Object> request) {
         try {
@@ -90,6 +143,22 @@ public class AdminController {
         }
     }
 
+    @PostMapping(value = "/payment/genPay", params = "format=csv")
+    public ResponseEntity<StreamingResponseBody> generatePaymentCodeCsv(@RequestBody Map<String, Integer> request) {
+        Integer points = request.get("points");
+        Integer amount = request.get("amount");
+        if (points == null || points <= 0) {
+            throw new IllegalArgumentException("Valid points amount is required");
+        }
+        if (amount == null || amount <= 0) {
+            amount = 1;
+        }
+
+        List<PaymentCode> codes = paymentService.generatePaymentCodes(amount, points);
+        return streamCsv("payment-codes.csv", "code,points", codes,
+            code -> code.getCode() + "," + code.getPoints());
+    }
+
     @PostMapping("/payment/genPay")
     public ResponseEntity<ApiResponse> generatePaymentCode(@RequestBody Map<String, Integer> request) {
         try {
@@ -131,11 +200,29 @@ public class AdminController {
 
 
     
+    // 返回类型须声明为 StreamingResponseBody，Spring 才会按流式写出而不是交给 Jackson 序列化
+    @GetMapping(value = "/users", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return streamJson("Users fetched successfully",
+            (Consumer<User> row) -> userService.streamAllUsers(user -> row.accept(user.sanitize())));
+    }
+
     @GetMapping("/users")
-    public ResponseEntity<ApiResponse> getAllUsers() {
+    public ResponseEntity<ApiResponse> getAllUsers(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<User> users = userService.getAllUsers();
+            if (cursor != null || size != null) {
+                // 只返回脱敏后的用户，不暴露密码哈希与密保答案
+                CursorPage<User> page = userService.getUsersPage(cursor, pageSize(size));
+                page.setItems(page.getItems().stream().map(User::sanitize).toList());
+                return ResponseEntity.ok(new ApiResponse("ok", "Users fetched successfully", page));
+            }
+            List<User> users = userService.getAllUsers().stream().map(User::sanitize).toList();
             return ResponseEntity.ok(new ApiResponse("ok", "Users fetched successfully", users));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error fetching users: " + e.getMessage()));
@@ -161,6 +248,9 @@ public class AdminController {
         try {
             User updatedUser = userService.updateUser(id, updates);
             return ResponseEntity.ok(new ApiResponse("ok", "User updated successfully", updatedUser.sanitize()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new ApiResponse("error", e.getMessage()));
@@ -168,11 +258,52 @@ public class AdminController {
     }
 
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse> getCacheStats() {
+        Map<String, Object> principal = new HashMap<>();
+        principal.put("size", principalCache.size());
+        principal.put("hits", principalCache.getHitCount());
+        principal.put("misses", principalCache.getMissCount());
+        principal.put("evictions", principalCache.getEvictionCount());
+
+        Map<String, Object> entitlement = new HashMap<>();
+        entitlement.put("size", entitlementCache.size());
+        entitlement.put("hits", entitlementCache.getHitCount());
+        entitlement.put("misses", entitlementCache.getMissCount());
+        entitlement.put("evictions", entitlementCache.getEvictionCount());
+
+        Map<String, Object> search = new HashMap<>();
+        search.put("size", searchResultCache.size());
+        search.put("hits", searchResultCache.getHitCount());
+        search.put("misses", searchResultCache.getMissCount());
+        search.put("evictions", searchResultCache.getEvictionCount());
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("principal", principal);
+        stats.put("entitlement", entitlement);
+        stats.put("search", search);
+        return ResponseEntity.ok(new ApiResponse("ok", "Cache stats fetched successfully", stats));
+    }
+
+    @GetMapping(value = "/games", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllGames() {
+        return streamJson("Games fetched successfully", gameService::streamAllGames);
+    }
+
     @GetMapping("/games")
-    public ResponseEntity<ApiResponse> getAllGames() {
+    public ResponseEntity<ApiResponse> getAllGames(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
+            if (cursor != null || size != null) {
+                CursorPage<Game> page = gameService.getGamesPage(cursor, pageSize(size));
+                return ResponseEntity.ok(new ApiResponse("ok", "Games fetched successfully", page));
+            }
             List<Game> games = gameService.getAllGames();
             return ResponseEntity.ok(new ApiResponse("ok", "Games fetched successfully", games));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error fetching games: " + e.getMessage()));
@@ -222,6 +353,17 @@ public class AdminController {
         }
     }
 
+    @DeleteMapping("/games")
+    public ResponseEntity<ApiResponse> deleteAllGames() {
+        try {
+            GamePurgeResult result = gameService.deleteAllGames();
+            return ResponseEntity.ok(new ApiResponse("ok", "Games deleted successfully", result));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse("error", "Error deleting games: " + e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/games/{gameId}")
     public ResponseEntity<ApiResponse> deleteGame(@PathVariable Long gameId) {
         try {
@@ -236,11 +378,25 @@ public class AdminController {
         }
     }
 
+    @GetMapping(value = "/vip/codes", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllVipCodes() {
+        return streamJson("VIP codes fetched successfully", vipService::streamAllVipCodes);
+    }
+
     @GetMapping("/vip/codes")
-    public ResponseEntity<ApiResponse> getAllVipCodes() {
+    public ResponseEntity<ApiResponse> getAllVipCodes(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
+            if (cursor != null || size != null) {
+                CursorPage<VipCode> page = vipService.getVipCodesPage(cursor, pageSize(size));
+                return ResponseEntity.ok(new ApiResponse("ok", "VIP codes fetched successfully", page));
+            }
             List<VipCode> codes = vipService.getAllVipCodes();
             return ResponseEntity.ok(new ApiResponse("ok", "VIP codes fetched successfully", codes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error fetching VIP codes: " + e.getMessage()));
@@ -277,11 +433,25 @@ public class AdminController {
         }
     }
 
+    @GetMapping(value = "/payment/codes", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllPaymentCodes() {
+        return streamJson("Payment codes fetched successfully", paymentService::streamAllPaymentCodes);
+    }
+
     @GetMapping("/payment/codes")
-    public ResponseEntity<ApiResponse> getAllPaymentCodes() {
+    public ResponseEntity<ApiResponse> getAllPaymentCodes(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
+            if (cursor != null || size != null) {
+                CursorPage<PaymentCode> page = paymentService.getPaymentCodesPage(cursor, pageSize(size));
+                return ResponseEntity.ok(new ApiResponse("ok", "Payment codes fetched successfully", page));
+            }
             List<PaymentCode> codes = paymentService.getAllPaymentCodes();
             return ResponseEntity.ok(new ApiResponse("ok", "Payment codes fetched successfully", codes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error fetching payment codes: " + e.getMessage()));
@@ -321,13 +491,24 @@ public class AdminController {
     @PostMapping("/games/upload")
     public ResponseEntity<ApiResponse> uploadGames(
             @RequestParam("file") MultipartFile file,
-            @RequestParam(value = "mode", defaultValue = "merge") String mode) {
+            @RequestParam(value = "mode", defaultValue = "merge") String mode,
+            @RequestParam(value = "async", defaultValue = "true") boolean async) {
         try {
+            if (async) {
+                if (!"overwrite".equals(mode) && !"merge".equals(mode)) {
+                    return ResponseEntity.badRequest()
+                        .body(new ApiResponse("error", "Invalid mode. Use 'merge' or 'overwrite'"));
+                }
+                ImportJob job = importJobService.submitGameImport(saveUploadForJob(file), mode);
+                return jobSubmitted(job);
+            }
+
             String fileName = file.getOriginalFilename();
             String tempFilePath = System.getProperty("java.io.tmpdir") + "/" + fileName;
             file.transferTo(new File(tempFilePath));
 
-            List<Game> newGames = ExcelGameReader.readGamesFromExcel(tempFilePath);
+            List<Game> newGames = new ArrayList<>();
+            ExcelGameReader.readGamesFromExcel(tempFilePath, streamingThreshold, newGames::add);
 
             // 记录重复的游戏名称
             Map<String, List<Game>> duplicateGames = new HashMap<>();
@@ -342,24 +523,16 @@ public class AdminController {
             newGames = gameMap.values().stream().collect(Collectors.toList());
 
             List<Game> skippedGames = new ArrayList<>();
-            if ("overwrite".equals(mode)) {
-                for (Game game : newGames) {
-                    if(gameService.getGameById(game.getId()).isPresent()) {
-                        gameService.updateGame(game.getId(), game);
-                    }else {
-                        gameService.saveGame(game);
-                    }
-                }
-            } else if ("merge".equals(mode)) {
-                List<Game> mergedGames = gameService.mergeGames(newGames);
-                newGames = mergedGames;
-            } else {
+            if (!"overwrite".equals(mode) && !"merge".equals(mode)) {
                 return ResponseEntity.badRequest()
                     .body(new ApiResponse("error", "Invalid mode. Use 'merge' or 'overwrite'"));
             }
+            // 批量写入：一次查询已有记录，按批次 upsert
+            GameImportReport report = gameService.importGames(newGames, mode);
 
             Map<String, Object> response = new HashMap<>();
             response.put("games", newGames);
+            response.put("report", report);
             if (!duplicateGames.isEmpty()) {
                 response.put("duplicateGames", duplicateGames);
             }
@@ -372,6 +545,9 @@ public class AdminController {
                     duplicateGames.size(), skippedGames.size()), 
                 response));
 
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ApiResponse("error", "Too many import jobs in progress, please retry later"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error uploading games: " + e.getMessage()));
@@ -379,23 +555,33 @@ public class AdminController {
     }
 
     @PostMapping("/vip/set")
-    public ResponseEntity<ApiResponse> setVipCodes(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ApiResponse> setVipCodes(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "async", defaultValue = "true") boolean async) {
         try {
+            if (async) {
+                return jobSubmitted(importJobService.submitVipImport(saveUploadForJob(file)));
+            }
+
             String fileName = file.getOriginalFilename();
             String tempFilePath = System.getProperty("java.io.tmpdir") + "/" + fileName;
             file.transferTo(new File(tempFilePath));
 
             // 读取Excel文件中的VIP码数据
-            List<VipCode> newCodes = ExcelVipReader.readVipCodesFromExcel(tempFilePath);
+            List<VipCode> newCodes = new ArrayList<>();
+            ExcelVipReader.readVipCodesFromExcel(tempFilePath, streamingThreshold, newCodes::add);
 
-            // 删除所有现有VIP码并保存新的
-            vipService.deleteAllVipCodes();
-            List<VipCode> savedCodes = vipService.saveVipCodes(newCodes);
+            // 删除所有现有VIP码并分批保存新的，同一事务内完成，失败时原有VIP码保持不变
+            vipService.replaceAllVipCodes(newCodes, importBatchSize, chunk -> { });
+            List<VipCode> savedCodes = newCodes;
 
             return ResponseEntity.ok(new ApiResponse("ok", 
                 String.format("Successfully imported %d VIP codes", savedCodes.size()), 
                 savedCodes));
 
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ApiResponse("error", "Too many import jobs in progress, please retry later"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error uploading VIP codes: " + e.getMessage()));
@@ -403,53 +589,83 @@ public class AdminController {
     }
 
     @PostMapping("/payment/setPay")
-    public ResponseEntity<ApiResponse> setPaymentCodes(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ApiResponse> setPaymentCodes(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "async", defaultValue = "true") boolean async) {
         try {
+            if (async) {
+                return jobSubmitted(importJobService.submitPaymentImport(saveUploadForJob(file)));
+            }
+
             String fileName = file.getOriginalFilename();
             String tempFilePath = System.getProperty("java.io.tmpdir") + "/" + fileName;
             file.transferTo(new File(tempFilePath));
 
             // 读取Excel文件中的支付码数据
-            List<PaymentCode> newCodes = ExcelPaymentReader.readPaymentCodesFromExcel(tempFilePath);
+            List<PaymentCode> newCodes = new ArrayList<>();
+            ExcelPaymentReader.readPaymentCodesFromExcel(tempFilePath, streamingThreshold, newCodes::add);
 
-            // 删除所有现有支付码并保存新的
-            paymentService.deleteAllPaymentCodes();
-            List<PaymentCode> savedCodes = paymentService.savePaymentCodes(newCodes);
+            // 删除所有现有支付码并分批保存新的，同一事务内完成，失败时原有支付码保持不变
+            paymentService.replaceAllPaymentCodes(newCodes, importBatchSize, chunk -> { });
+            List<PaymentCode> savedCodes = newCodes;
 
             return ResponseEntity.ok(new ApiResponse("ok", 
                 String.format("Successfully imported %d payment codes", savedCodes.size()), 
                 savedCodes));
 
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ApiResponse("error", "Too many import jobs in progress, please retry later"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error uploading payment codes: " + e.getMessage()));
         }
     }
 
+    @GetMapping("/jobs")
+    public ResponseEntity<ApiResponse> getImportJobs() {
+        return ResponseEntity.ok(new ApiResponse("ok", "Import jobs fetched successfully",
+            importJobService.getJobs()));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse> getImportJob(@PathVariable String jobId) {
+        return importJobService.getJob(jobId)
+            .map(job -> ResponseEntity.ok(new ApiResponse("ok", "Import job fetched successfully", job)))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ApiResponse("error", "Import job not found: " + jobId)));
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse> cancelImportJob(@PathVariable String jobId) {
+        if (!importJobService.cancelJob(jobId)) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", "Import job not found or already finished: " + jobId));
+        }
+        return ResponseEntity.ok(new ApiResponse("ok", "Import job cancellation requested",
+            importJobService.getJob(jobId).orElse(null)));
+    }
+
     @GetMapping("/site-config")
-    public ResponseEntity<ApiResponse> getSiteConfig() {
-        try {
-            Path path = Paths.get(configPath, "site-config.json");
-            // 如果文件不存在，从classpath复制一份作为初始配置
-            if (!Files.exists(path)) {
-                Resource defaultConfig = resourceLoader.getResource("classpath:static/config/site-config.json");
-                Files.copy(Paths.get(defaultConfig.getURI()), path);
-            }
-            String config = new String(Files.readAllBytes(path));
-            return ResponseEntity.ok(new ApiResponse("ok", "配置获取成功", config));
-        } catch (Exception e) {
+    public ResponseEntity<?> getSiteConfig() {
+        SiteConfigSnapshot snapshot = siteConfigService.getConfig();
+        if (snapshot == null) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(new ApiResponse("error", "读取配置失败: " + e.getMessage()));
+                .body(new ApiResponse("error", "读取配置失败: 配置文件不存在"));
         }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(snapshot.getResponseBody());
     }
 
     @PostMapping("/site-config")
     public ResponseEntity<ApiResponse> updateSiteConfig(@RequestBody String config) {
         try {
-            Path path = Paths.get(configPath, "site-config.json");
-            Files.createDirectories(path.getParent()); // 确保目录存在
-            Files.write(path, config.getBytes());
+            siteConfigService.updateConfig(config);
             return ResponseEntity.ok(new ApiResponse("ok", "配置更新成功"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", "更新配置失败: " + e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "更新配置失败: " + e.getMessage()));
@@ -469,4 +685,66 @@ public class AdminController {
                 .body(new ApiResponse("error", "删除用户失败: " + e.getMessage()));
         }
     }
+
+    // 后台任务在请求结束后才读取文件，使用唯一文件名避免并发上传互相覆盖
+    private String saveUploadForJob(MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("import-", "-" + file.getOriginalFilename());
+        file.transferTo(tempFile);
+        return tempFile.toString();
+    }
+
+    private ResponseEntity<ApiResponse> jobSubmitted(ImportJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(new ApiResponse("ok", "Import job submitted", Map.of("jobId", job.getId())));
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // 以 ApiResponse 的结构流式输出，边查询边写出，不在内存中保留整张表
+    private <T> ResponseEntity<StreamingResponseBody> streamJson(String message, Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeStringField("status", "ok");
+                generator.writeStringField("message", message);
+                generator.writeArrayFieldStart("data");
+                source.accept(row -> {
+                    try {
+                        generator.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    // 大批量生成的兑换码以 CSV 附件逐行写出，避免构造整个 JSON 响应
+    private <T> ResponseEntity<StreamingResponseBody> streamCsv(String fileName, String header, List<T> rows,
+                                                               Function<T, String> toLine) {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(header);
+            writer.write('\n');
+            for (T row : rows) {
+                writer.write(toLine.apply(row));
+                writer.write('\n');
+            }
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .body(body);
+    }
 }
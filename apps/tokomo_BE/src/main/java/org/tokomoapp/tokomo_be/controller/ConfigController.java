@@ -1,33 +1,41 @@
 package org.tokomoapp.tokomo_be.controller;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.tokomoapp.tokomo_be.dto.SiteConfigSnapshot;
 import org.tokomoapp.tokomo_be.model.ApiResponse;
-
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import org.tokomoapp.tokomo_be.service.SiteConfigService;
 
 @RestController
 @RequestMapping("/api")
 public class ConfigController {
     
-    @Value("${config.path}")
-    private String configPath;
+    @Autowired
+    private SiteConfigService siteConfigService;
     
     @GetMapping("/site-config")
-    public ResponseEntity<ApiResponse> getSiteConfig() {
-        try {
-            Path path = Paths.get(configPath, "site-config.json");
-            String config = new String(Files.readAllBytes(path));
-            return ResponseEntity.ok(new ApiResponse("ok", "配置获取成功", config));
-        } catch (Exception e) {
+    public ResponseEntity<?> getSiteConfig(WebRequest request) {
+        SiteConfigSnapshot snapshot = siteConfigService.getConfig();
+        if (snapshot == null) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(new ApiResponse("error", "读取配置失败: " + e.getMessage()));
+                .body(new ApiResponse("error", "读取配置失败: 配置文件不存在"));
+        }
+
+        // 配置未变化时返回 304，浏览器使用本地缓存
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null;
         }
+        return ResponseEntity.ok()
+            .eTag(snapshot.getEtag())
+            .cacheControl(CacheControl.noCache())
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(snapshot.getResponseBody());
     }
-} 
\ No newline at end of file
+}
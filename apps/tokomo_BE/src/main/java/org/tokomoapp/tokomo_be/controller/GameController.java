@@ -1,6 +1,5 @@
 package org.tokomoapp.tokomo_be.controller;
 
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,9 +17,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.tokomoapp.tokomo_be.dto.SearchPage;
+import org.tokomoapp.tokomo_be.exception.GameAlreadyOwnedException;
+import org.tokomoapp.tokomo_be.exception.InsufficientPointsException;
+import org.tokomoapp.tokomo_be.metrics.AppMetrics;
 import org.tokomoapp.tokomo_be.model.ApiResponse;
 import org.tokomoapp.tokomo_be.model.Game;
 import org.tokomoapp.tokomo_be.model.User;
+import org.tokomoapp.tokomo_be.search.PrefixTrie;
 import org.tokomoapp.tokomo_be.service.GameService;
 import org.tokomoapp.tokomo_be.service.UserGameService;
 import org.tokomoapp.tokomo_be.service.UserService;
@@ -29,6 +33,7 @@ import org.tokomoapp.tokomo_be.service.UserService;
 @RequestMapping("/api/games")
 @PreAuthorize("isAuthenticated()")
 public class GameController {
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
     
 
     
@@ -41,22 +46,63 @@ public class GameController {
     @Autowired
     private UserGameService userGameService;
 
+    @Autowired
+    private AppMetrics appMetrics;
+
     @Value("${game.cost}")
     private Integer gameCost;
 
+    @Value("${search.fuzzy.default-limit}")
+    private int fuzzyDefaultLimit;
+
+    @Value("${search.fuzzy.max-limit}")
+    private int fuzzyMaxLimit;
+
+    @Value("${search.page.max-limit}")
+    private int searchMaxLimit;
+
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse> searchGames(@RequestParam String keyword) {
+    public ResponseEntity<ApiResponse> searchGames(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "exact") String mode,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "0") int offset) {
         try {
-            List<Game> games = gameService.searchGames(keyword);
-            //sort by game id 
-            games.sort(Comparator.comparingLong(Game::getId));
-            return ResponseEntity.ok(new ApiResponse("ok", "Games searched successfully", games));
+            // 容错模式：允许错字、支持拼音与首字母，按相关度返回前 limit 个，不支持 offset
+            if ("fuzzy".equals(mode)) {
+                int requested = limit != null ? limit : fuzzyDefaultLimit;
+                int size = Math.max(1, Math.min(requested, fuzzyMaxLimit));
+                List<Game> games = gameService.fuzzySearchGames(keyword, size);
+                return ResponseEntity.ok(new ApiResponse("ok", "Games searched successfully", games));
+            }
+            // 结果按 id 升序，总数放在 X-Total-Count 响应头；指定 limit 时分页，每次最多返回 search.page.max-limit 条，
+            // 未指定时返回全部结果，兼容不分页的旧客户端
+            int size = limit != null ? Math.max(1, Math.min(limit, searchMaxLimit)) : Integer.MAX_VALUE;
+            SearchPage<Game> page = gameService.searchGames(keyword, Math.max(0, offset), size);
+            return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(page.getTotal()))
+                .body(new ApiResponse("ok", "Games searched successfully", page.getItems()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error searching games: " + e.getMessage()));
         }
     }
 
+    // 输入提示：名称以 prefix 开头的游戏，按购买次数排序
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse> suggestGames(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            int size = Math.max(1, Math.min(limit, PrefixTrie.TOP_K));
+            List<Game> games = gameService.suggestGames(prefix, size);
+            return ResponseEntity.ok(new ApiResponse("ok", "Suggestions fetched successfully", games));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ApiResponse("error", "Error fetching suggestions: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/{gameId}")
     public ResponseEntity<ApiResponse> getGame(
             @AuthenticationPrincipal Long userId,
@@ -98,26 +144,27 @@ public class GameController {
             Game game = gameService.getGameById(gameId)
                 .orElseThrow(() -> new RuntimeException("Game not found with : " + gameId));
 
-            // 检查用户是否已经购买过该游戏
-            if (userGameService.existsByUserIdAndGameId(user.getId(), game.getId())) {
-                return ResponseEntity.badRequest()
-                    .body(new ApiResponse("error", "You already own this game"));
-            }
-
-            // 非VIP用户需要扣除积分
-            if (!user.isVIP()) {
-                user = userService.deductPoints(user.getId(), gameCost);
-            }
-
-            // 保存购买记录
-           userGameService.save(user, game);
+            // 非VIP用户需要扣除积分，扣分与购买记录在同一事务内完成
+            // 已购买时先于扣分返回，并发的重复购买由 (user_id, game_id) 唯一约束拦截
+            int cost = user.isVIP() ? 0 : gameCost;
+            Integer remainingPoints = userGameService.purchase(user.getId(), game.getId(), cost);
+            appMetrics.purchase("success");
 
             Map<String, Object> response = new HashMap<>();
             response.put("game", game);
-            response.put("remainingPoints", user.getPoints());
+            response.put("remainingPoints", remainingPoints != null ? remainingPoints : user.getPoints());
             
             return ResponseEntity.ok(new ApiResponse("ok", "Game purchased successfully", response));
+        } catch (GameAlreadyOwnedException e) {
+            appMetrics.purchase("already_owned");
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", e.getMessage()));
+        } catch (InsufficientPointsException e) {
+            appMetrics.purchase("insufficient_points");
+            return ResponseEntity.badRequest()
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
+            appMetrics.purchase("error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "Error purchasing game: " + e.getMessage()));
         }
@@ -3,24 +3,27 @@ package org.tokomoapp.tokomo_be.controller;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.tokomoapp.tokomo_be.metrics.AppMetrics;
 import org.tokomoapp.tokomo_be.model.ApiResponse;
 import org.tokomoapp.tokomo_be.model.PaymentCode;
 import org.tokomoapp.tokomo_be.model.User;
-import org.tokomoapp.tokomo_be.model.UserGame;
 import org.tokomoapp.tokomo_be.service.PaymentService;
 import org.tokomoapp.tokomo_be.service.UserGameService;
 import org.tokomoapp.tokomo_be.service.UserService;
 import org.tokomoapp.tokomo_be.util.JwtUtil;
 import org.tokomoapp.tokomo_be.dto.UserGameDTO;
 import org.tokomoapp.tokomo_be.exception.InvalidVipCodeException;
+import org.tokomoapp.tokomo_be.exception.TooManyRequestsException;
 import org.tokomoapp.tokomo_be.exception.UserAlreadyExistsException;
 
 @RestController
@@ -37,6 +40,11 @@ public class UserController {
     private UserGameService userGameService;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    private AppMetrics appMetrics;
+
+    @Value("${purchase-history.max-page-size}")
+    private int maxHistoryPageSize;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse> register(@RequestBody Map<String, String> request) {
@@ -64,6 +72,10 @@ public class UserController {
             return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(new ApiResponse("error", e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -87,6 +99,7 @@ public class UserController {
                 User user = userService.authenticateUser(username, password);
                 //if user have been banned
                 if(!user.getIsActive() ){
+                    appMetrics.failedLogin();
                     return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse("error", "账号被停用"));
                 }
@@ -97,7 +110,11 @@ public class UserController {
                 data.put("token", token);
                 
                 return ResponseEntity.ok(new ApiResponse("ok", "Login successful", data));
+            } catch (TooManyRequestsException e) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(new ApiResponse("error", e.getMessage()));
             } catch (RuntimeException e) {
+                appMetrics.failedLogin();
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse("error", e.getMessage()));
             }
@@ -150,14 +167,17 @@ public class UserController {
             }
             
             User user = userService.redeemVipCode(userId, code);
+            appMetrics.redemption("vip", "success");
             
             return ResponseEntity.ok(new ApiResponse("ok", "VIP activated successfully", 
                 Map.of("expireDate", user.getVipExpireDate())));
                 
         } catch (InvalidVipCodeException e) {
+            appMetrics.redemption("vip", "invalid");
             return ResponseEntity.badRequest()
                 .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
+            appMetrics.redemption("vip", "error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "System error: " + e.getMessage()));
         }
@@ -177,14 +197,17 @@ public class UserController {
             }
             
             User user = userService.redeemPaymentCode(userId,code);
+            appMetrics.redemption("payment", "success");
             
             return ResponseEntity.ok(new ApiResponse("ok", "Payment successful", 
                 Map.of("totalPoints", user.getPoints())));
                 
         } catch (RuntimeException e) {
+            appMetrics.redemption("payment", "invalid");
             return ResponseEntity.badRequest()
                 .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
+            appMetrics.redemption("payment", "error");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiResponse("error", "System error: " + e.getMessage()));
         }
@@ -211,6 +234,10 @@ public class UserController {
 
             String result = userService.resetPassword(username, securityAnswer, newPassword);
             return ResponseEntity.ok(new ApiResponse("ok", result));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(new ApiResponse("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
@@ -237,18 +264,18 @@ public class UserController {
     @GetMapping("/purchase-history")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse> getPurchaseHistory(
-            @AuthenticationPrincipal Long userId) {
+            @AuthenticationPrincipal Long userId,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size) {
         try {
-            List<UserGame> purchaseHistory = userGameService.getPurchaseHistory(userId);
+            // 不传 size 时返回全部记录，兼容现有前端
+            Pageable pageable = Pageable.unpaged();
+            if (size != null && size > 0) {
+                int pageNumber = page != null && page >= 0 ? page : 0;
+                pageable = PageRequest.of(pageNumber, Math.min(size, maxHistoryPageSize));
+            }
 
-            List<UserGameDTO> purchaseHistoryDTO = purchaseHistory.stream()
-                .map(userGame -> new UserGameDTO(
-                    userGame.getId(),
-                    userGame.getUser().getId(),
-                    userGame.getGame(),
-                    userGame.getPurchaseDate()
-                ))
-                .collect(Collectors.toList());
+            List<UserGameDTO> purchaseHistoryDTO = userGameService.getPurchaseHistory(userId, pageable);
 
             return ResponseEntity.ok(new ApiResponse("ok", "Purchase history retrieved", purchaseHistoryDTO));
         } catch (Exception e) {
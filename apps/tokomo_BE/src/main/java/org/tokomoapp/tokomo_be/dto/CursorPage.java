@@ -0,0 +1,27 @@
+package org.tokomoapp.tokomo_be.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.tokomoapp.tokomo_be.util.CursorUtil;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;  // 为空表示已经是最后一页
+    private int size;
+
+    public static <T> CursorPage<T> of(List<T> items, int size, Function<T, Long> idGetter) {
+        String nextCursor = null;
+        if (items.size() == size && !items.isEmpty()) {
+            nextCursor = CursorUtil.encode(idGetter.apply(items.get(items.size() - 1)));
+        }
+        return new CursorPage<>(items, nextCursor, size);
+    }
+}
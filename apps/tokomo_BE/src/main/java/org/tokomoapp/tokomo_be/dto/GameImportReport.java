@@ -0,0 +1,56 @@
+package org.tokomoapp.tokomo_be.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class GameImportReport {
+    private String mode;
+    private int total;
+    private int inserted;
+    private int updated;
+    private int failed;
+    private List<BatchProgress> batches = new ArrayList<>();
+
+    public GameImportReport(String mode, int total) {
+        this.mode = mode;
+        this.total = total;
+    }
+
+    public void addBatch(BatchProgress batch) {
+        batches.add(batch);
+        inserted += batch.getInserted();
+        updated += batch.getUpdated();
+        failed += batch.getFailed();
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class BatchProgress {
+        private int batch;
+        private int size;
+        private int inserted;
+        private int updated;
+        private int failed;
+        // 整批写入失败的原因，此时已改为逐行写入
+        private String error;
+        // 逐行写入时仍失败的行
+        private List<String> failedRows = new ArrayList<>();
+
+        public BatchProgress(int batch, int size) {
+            this.batch = batch;
+            this.size = size;
+        }
+
+        public void addFailedRow(String row) {
+            failedRows.add(row);
+            failed++;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.tokomoapp.tokomo_be.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GamePurgeResult {
+    private int deleted;
+    // 存在购买记录而保留的游戏 id
+    private List<Long> skippedIds;
+}
@@ -0,0 +1,17 @@
+package org.tokomoapp.tokomo_be.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SearchPage<T> {
+    private List<T> items;
+    private long total;   // 全部匹配数量
+    private int offset;
+    private int limit;
+}
@@ -0,0 +1,18 @@
+package org.tokomoapp.tokomo_be.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 内存中的站点配置：原始文本、解析结果，以及预先序列化好的 ApiResponse 响应体和对应的 ETag
+ */
+@Getter
+@AllArgsConstructor
+public class SiteConfigSnapshot {
+    private final String config;
+    private final JsonNode parsed;
+    private final byte[] responseBody;
+    private final String etag;
+}
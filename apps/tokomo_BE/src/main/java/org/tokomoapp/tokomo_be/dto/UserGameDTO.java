@@ -14,4 +14,17 @@ public class UserGameDTO {
     private Long userId;
     private Game game;
     private LocalDateTime purchaseDate;
+
+    // 购买记录查询的投影构造器，只取游戏的 id、名称和类型
+    public UserGameDTO(Long id, Long userId, Long gameId, String gameName, String gameType,
+                       LocalDateTime purchaseDate) {
+        Game game = new Game();
+        game.setId(gameId);
+        game.setGameName(gameName);
+        game.setGameType(gameType);
+        this.id = id;
+        this.userId = userId;
+        this.game = game;
+        this.purchaseDate = purchaseDate;
+    }
 }
@@ -0,0 +1,7 @@
+package org.tokomoapp.tokomo_be.exception;
+
+public class GameAlreadyOwnedException extends RuntimeException {
+    public GameAlreadyOwnedException(String message) {
+        super(message);
+    }
+}
@@ -17,10 +17,24 @@ public class GlobalExceptionHandler {
             .body(new ApiResponse("error", "Admin permission required"));
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse> handleTooManyRequestsException(TooManyRequestsException e) {
+        return ResponseEntity
+            .status(HttpStatus.TOO_MANY_REQUESTS)
+            .body(new ApiResponse("error", e.getMessage()));
+    }
+
     @ExceptionHandler(InvalidVipCodeException.class)
     public ResponseEntity<ApiResponse> handleInvalidVipCodeException(InvalidVipCodeException e) {
         return ResponseEntity
             .status(HttpStatus.BAD_REQUEST)
             .body(new ApiResponse("error", e.getMessage()));
     }
-} 
\ No newline at end of file
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse> handleIllegalArgumentException(IllegalArgumentException e) {
+        return ResponseEntity
+            .status(HttpStatus.BAD_REQUEST)
+            .body(new ApiResponse("error", e.getMessage()));
+    }
+}
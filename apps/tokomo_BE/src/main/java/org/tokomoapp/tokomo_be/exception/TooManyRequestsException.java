@@ -0,0 +1,7 @@
+package org.tokomoapp.tokomo_be.exception;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
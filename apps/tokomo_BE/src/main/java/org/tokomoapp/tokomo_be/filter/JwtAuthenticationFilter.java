@@ -10,8 +10,9 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import org.tokomoapp.tokomo_be.cache.PrincipalCache;
+import org.tokomoapp.tokomo_be.cache.PrincipalCache.CachedPrincipal;
 import org.tokomoapp.tokomo_be.model.ApiResponse;
-import org.tokomoapp.tokomo_be.model.User;
 import org.tokomoapp.tokomo_be.service.UserService;
 import org.tokomoapp.tokomo_be.util.JwtUtil;
 
@@ -25,11 +26,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final ObjectMapper objectMapper;
     private final UserService userService;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, ObjectMapper objectMapper, UserService userService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, ObjectMapper objectMapper, UserService userService,
+                                   PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
         this.objectMapper = objectMapper;
         this.userService = userService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -40,19 +44,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String token = authHeader.substring(7);
                 
-                // 验证token并获取用户信息
-                if (!jwtUtil.validateToken(token)) {
+                // 验证token并获取用户信息（只解析一次）
+                Long userId = jwtUtil.parseUserId(token);
+                if (userId == null) {
                     handleAuthenticationError(response, "Invalid token");
                     return;
                 }
                 
                 try {
-                    Long userId = jwtUtil.extractUserId(token);
-                    User user = userService.getUserById(userId);
+                    CachedPrincipal principal = principalCache.get(userId, userService::getUserById);
                     
-                    String username = user.getUsername();
-                    Boolean isAdmin = user.getIsAdmin();
-                    Boolean isVip = user.isVIP();
+                    String username = principal.getUsername();
+                    boolean isAdmin = principal.isAdmin();
+                    boolean isVip = principal.isVIP();
 
                     List<SimpleGrantedAuthority> authorities = new ArrayList<>();
                     authorities.add(new SimpleGrantedAuthority(isVip ? "ROLE_VIP" : "ROLE_NOTVIP"));
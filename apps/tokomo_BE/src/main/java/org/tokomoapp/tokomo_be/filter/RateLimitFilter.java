@@ -0,0 +1,147 @@
+package org.tokomoapp.tokomo_be.filter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.tokomoapp.tokomo_be.config.RateLimitProperties;
+import org.tokomoapp.tokomo_be.config.RateLimitProperties.Route;
+import org.tokomoapp.tokomo_be.model.ApiResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 按路由限流。已登录请求按用户 id 计数，未登录请求按客户端 IP 计数。
+ * 放在 JwtAuthenticationFilter 之后，认证信息已写入 SecurityContext。
+ *
+ * 令牌桶保存在 Caffeine 中：每个桶在最后一次访问后经过"从空到满"的时长即过期（此时与新建的桶等价），
+ * 过期与淘汰由 Caffeine 分摊到读写操作中完成；桶数超过 rate-limit.max-keys 时按访问频率淘汰。
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Cache<String, Bucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxKeys())
+            .expireAfter(new Expiry<String, Bucket>() {
+                @Override
+                public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+                    return bucket.burstNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Bucket bucket, long currentTime, long currentDuration) {
+                    return bucket.burstNanos;
+                }
+
+                // 每次获取令牌后桶最迟在 burstNanos 之后回满
+                @Override
+                public long expireAfterRead(String key, Bucket bucket, long currentTime, long currentDuration) {
+                    return bucket.burstNanos;
+                }
+            })
+            .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, Route> entry : properties.getRoutes().entrySet()) {
+            Route route = entry.getValue();
+            if (route.getPattern() == null || !pathMatcher.match(route.getPattern(), path)) {
+                continue;
+            }
+
+            String key = entry.getKey() + ":" + clientKey(request);
+            long now = System.nanoTime();
+            Bucket bucket = buckets.get(key, k -> new Bucket(route, now));
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                rejectRequest(response, waitNanos);
+                return;
+            }
+            break;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long) {
+            return "user:" + authentication.getPrincipal();
+        }
+        // 经过反向代理时依赖 server.forward-headers-strategy 还原真实 IP
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void rejectRequest(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+
+        ApiResponse errorResponse = new ApiResponse("error", "Too many requests, please retry later");
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+    /**
+     * 令牌桶的 GCRA 实现：只记录"桶恰好回满的时间点"，用一个 AtomicLong 做 CAS，无锁。
+     * 每次请求把该时间点后移一个令牌的间隔，超过桶容量对应的时长即拒绝。
+     */
+    static final class Bucket {
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final AtomicLong fullAt;
+
+        Bucket(Route route, long now) {
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / route.getRefillPerSecond());
+            this.burstNanos = intervalNanos * Math.max(1, route.getCapacity());
+            this.fullAt = new AtomicLong(now);
+        }
+
+        /**
+         * 获取一个令牌，成功返回 0，否则返回需要等待的纳秒数
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now > 0 ? current : now;
+                long next = base + intervalNanos;
+                long debt = next - now;
+                if (debt > burstNanos) {
+                    return debt - burstNanos;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
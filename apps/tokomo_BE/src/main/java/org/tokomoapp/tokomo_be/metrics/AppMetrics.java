@@ -0,0 +1,134 @@
+package org.tokomoapp.tokomo_be.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.tokomoapp.tokomo_be.cache.EntitlementCache;
+import org.tokomoapp.tokomo_be.cache.GameCatalog;
+import org.tokomoapp.tokomo_be.cache.PrincipalCache;
+import org.tokomoapp.tokomo_be.cache.SearchResultCache;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+import org.tokomoapp.tokomo_be.service.ImportJobService;
+import org.tokomoapp.tokomo_be.util.JwtUtil;
+import org.tokomoapp.tokomo_be.util.PasswordHasher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 业务指标：购买、兑换、登录失败计数，以及各个内存缓存的大小与命中情况。
+ * 请求耗时（http.server.requests）、仓库方法耗时（spring.data.repository.invocations）
+ * 和 HikariCP 连接池指标由 actuator 自动采集。
+ */
+@Component
+public class AppMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter failedLogins;
+
+    public AppMetrics(MeterRegistry registry,
+                      PrincipalCache principalCache,
+                      EntitlementCache entitlementCache,
+                      SearchResultCache searchResultCache,
+                      GameSearchIndex gameSearchIndex,
+                      GameCatalog gameCatalog,
+                      JwtUtil jwtUtil,
+                      ImportJobService importJobService,
+                      PasswordHasher passwordHasher) {
+        this.registry = registry;
+        this.failedLogins = Counter.builder("tokomo.logins.failed")
+            .description("Rejected login attempts")
+            .register(registry);
+
+        Gauge.builder("tokomo.cache.size", principalCache, PrincipalCache::size)
+            .tag("cache", "principal")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.requests", principalCache, PrincipalCache::getHitCount)
+            .tags("cache", "principal", "result", "hit")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.requests", principalCache, PrincipalCache::getMissCount)
+            .tags("cache", "principal", "result", "miss")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.evictions", principalCache, PrincipalCache::getEvictionCount)
+            .tag("cache", "principal")
+            .register(registry);
+        // 身份缓存由 Caffeine 记录统计，另外导出加载次数与耗时，用于观察未命中时查库的开销
+        FunctionCounter.builder("tokomo.cache.loads", principalCache, cache -> cache.stats().loadSuccessCount())
+            .tags("cache", "principal", "result", "success")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.loads", principalCache, cache -> cache.stats().loadFailureCount())
+            .tags("cache", "principal", "result", "failure")
+            .register(registry);
+        FunctionTimer.builder("tokomo.cache.load.duration", principalCache,
+                cache -> cache.stats().loadCount(), cache -> cache.stats().totalLoadTime(), TimeUnit.NANOSECONDS)
+            .tag("cache", "principal")
+            .register(registry);
+
+        Gauge.builder("tokomo.cache.size", entitlementCache, EntitlementCache::size)
+            .tag("cache", "entitlement")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.requests", entitlementCache, EntitlementCache::getHitCount)
+            .tags("cache", "entitlement", "result", "hit")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.requests", entitlementCache, EntitlementCache::getMissCount)
+            .tags("cache", "entitlement", "result", "miss")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.evictions", entitlementCache, EntitlementCache::getEvictionCount)
+            .tag("cache", "entitlement")
+            .register(registry);
+
+        Gauge.builder("tokomo.cache.size", searchResultCache, SearchResultCache::size)
+            .tag("cache", "search")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.requests", searchResultCache, SearchResultCache::getHitCount)
+            .tags("cache", "search", "result", "hit")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.requests", searchResultCache, SearchResultCache::getMissCount)
+            .tags("cache", "search", "result", "miss")
+            .register(registry);
+        FunctionCounter.builder("tokomo.cache.evictions", searchResultCache, SearchResultCache::getEvictionCount)
+            .tag("cache", "search")
+            .register(registry);
+
+        Gauge.builder("tokomo.cache.size", jwtUtil, JwtUtil::getVerifiedCacheSize)
+            .tag("cache", "jwt")
+            .register(registry);
+        Gauge.builder("tokomo.search.index.size", gameSearchIndex, GameSearchIndex::size)
+            .description("Games held by the in-memory search index")
+            .register(registry);
+        Gauge.builder("tokomo.catalog.size", gameCatalog, GameCatalog::size)
+            .description("Games held by the immutable catalog snapshot")
+            .register(registry);
+        Gauge.builder("tokomo.import.jobs.active", importJobService,
+                service -> service.getJobs().stream().filter(job -> !job.isFinished()).count())
+            .description("Import jobs pending or running")
+            .register(registry);
+        Gauge.builder("tokomo.bcrypt.active", passwordHasher, PasswordHasher::getActiveCount)
+            .description("Password hashes being computed")
+            .register(registry);
+        Gauge.builder("tokomo.bcrypt.queued", passwordHasher, PasswordHasher::getQueueSize)
+            .description("Password hashes waiting for a bcrypt thread")
+            .register(registry);
+    }
+
+    /**
+     * result: success / insufficient_points / already_owned / error
+     */
+    public void purchase(String result) {
+        registry.counter("tokomo.purchases", "result", result).increment();
+    }
+
+    /**
+     * type: vip / payment，result: success / invalid / error
+     */
+    public void redemption(String type, String result) {
+        registry.counter("tokomo.redemptions", "type", type, "result", result).increment();
+    }
+
+    public void failedLogin() {
+        failedLogins.increment();
+    }
+}
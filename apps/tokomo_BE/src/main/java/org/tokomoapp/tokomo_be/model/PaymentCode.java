@@ -6,7 +6,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "payment_codes")
+@Table(name = "payment_codes", indexes = {
+    @Index(name = "idx_payment_codes_used_by_used_at", columnList = "used_by, used_at DESC")
+})
 public class PaymentCode {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
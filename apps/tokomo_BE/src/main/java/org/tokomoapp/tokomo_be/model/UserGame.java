@@ -6,7 +6,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "user_games")
+@Table(name = "user_games", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_games_user_game", columnNames = {"user_id", "game_id"})
+}, indexes = {
+    @Index(name = "idx_user_games_game_id", columnList = "game_id")
+})
 @Data
 @NoArgsConstructor
 public class UserGame {
@@ -14,11 +18,11 @@ public class UserGame {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game_id", nullable = false)
     private Game game;
 
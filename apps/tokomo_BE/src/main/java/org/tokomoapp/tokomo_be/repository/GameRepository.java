@@ -1,12 +1,47 @@
 package org.tokomoapp.tokomo_be.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.tokomoapp.tokomo_be.model.Game;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface GameRepository extends JpaRepository<Game, Long> {
     Optional<Game> findByGameName(String gameName);
+
+    @Query("select g.id from Game g where g.gameName in :gameNames")
+    List<Long> findIdsByGameNameIn(@Param("gameNames") Collection<String> gameNames);
+
+    @Query("select g.gameName from Game g")
+    List<String> findAllGameNames();
+
+    @Query("select g.id from Game g")
+    List<Long> findAllIds();
+
+    List<Game> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select g from Game g order by g.id")
+    Stream<Game> streamAllOrderById();
+
+    // lower(game_name) 上有三元组索引（V2 迁移），调用方需先转义通配符
+    @Query(value = "SELECT * FROM games WHERE lower(game_name) LIKE '%' || lower(:keyword) || '%' ESCAPE '\\' " +
+                   "ORDER BY id LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Game> searchByGameName(@Param("keyword") String keyword, @Param("offset") int offset, @Param("limit") int limit);
+
+    @Query(value = "SELECT count(*) FROM games WHERE lower(game_name) LIKE '%' || lower(:keyword) || '%' ESCAPE '\\'",
+           nativeQuery = true)
+    long countSearchByGameName(@Param("keyword") String keyword);
 }
@@ -1,13 +1,36 @@
 package org.tokomoapp.tokomo_be.repository;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.tokomoapp.tokomo_be.model.PaymentCode;
+
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PaymentCodeRepository extends JpaRepository<PaymentCode, Long> {
     Optional<PaymentCode> findByCode(String code);
     List<PaymentCode> findByUsedByOrderByUsedAtDesc(Long usedBy);
     Optional<PaymentCode> findByCodeAndUsedFalse(String code);
     boolean existsByCode(String code);
+
+    List<PaymentCode> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from PaymentCode p order by p.id")
+    Stream<PaymentCode> streamAllOrderById();
+
+    // 未使用的充值码只会被一条语句标记成功，并发兑换同一个码时其余请求返回空
+    @Query(value = "UPDATE payment_codes SET used = true, used_by = :userId, used_at = :usedAt " +
+                   "WHERE code = :code AND used = false RETURNING points",
+           nativeQuery = true)
+    Optional<Integer> claim(@Param("code") String code, @Param("userId") Long userId,
+                            @Param("usedAt") LocalDateTime usedAt);
 } 
\ No newline at end of file
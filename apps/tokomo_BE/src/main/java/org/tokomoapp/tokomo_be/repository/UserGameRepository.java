@@ -1,17 +1,41 @@
 package org.tokomoapp.tokomo_be.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.tokomoapp.tokomo_be.dto.UserGameDTO;
 import org.tokomoapp.tokomo_be.model.UserGame;
 
 @Repository
 public interface UserGameRepository extends JpaRepository<UserGame, Long> {
     List<UserGame> findByUserId(Long userId);
+
+    @Query("select new org.tokomoapp.tokomo_be.dto.UserGameDTO(ug.id, ug.user.id, g.id, g.gameName, g.gameType, ug.purchaseDate) " +
+           "from UserGame ug join ug.game g where ug.user.id = :userId order by ug.id")
+    List<UserGameDTO> findHistoryByUserId(@Param("userId") Long userId, Pageable pageable);
     Optional<UserGame> findByUserIdAndGameId(Long userId, Long gameId);
     boolean existsByUserIdAndGameId(Long userId, Long gameId);
     boolean existsByUserId(Long userId);
     boolean existsByGameId(Long gameId);
+
+    @Query("select ug.game.id, count(ug) from UserGame ug group by ug.game.id")
+    List<Object[]> countPurchasesByGame();
+
+    @Query("select ug.game.id from UserGame ug where ug.user.id = :userId")
+    List<Long> findGameIdsByUserId(@Param("userId") Long userId);
+
+    // 依赖 (user_id, game_id) 唯一约束，已购买时返回 0
+    @Modifying
+    @Query(value = "INSERT INTO user_games (user_id, game_id, purchase_date) VALUES (:userId, :gameId, :purchaseDate) " +
+                   "ON CONFLICT (user_id, game_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("gameId") Long gameId,
+                       @Param("purchaseDate") LocalDateTime purchaseDate);
 }
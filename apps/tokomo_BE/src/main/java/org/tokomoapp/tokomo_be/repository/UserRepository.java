@@ -1,9 +1,42 @@
 package org.tokomoapp.tokomo_be.repository;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.tokomoapp.tokomo_be.model.User;
+
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllOrderById();
+
+    // 余额校验与扣减在一条语句内完成，余额不足时不更新任何行，返回扣减后的积分
+    @Query(value = "UPDATE users SET points = points - :points WHERE id = :userId AND points >= :points RETURNING points",
+           nativeQuery = true)
+    Optional<Integer> deductPointsIfSufficient(@Param("userId") Long userId, @Param("points") Integer points);
+
+    @Query(value = "UPDATE users SET points = COALESCE(points, 0) + :points WHERE id = :userId RETURNING *",
+           nativeQuery = true)
+    Optional<User> addPoints(@Param("userId") Long userId, @Param("points") Integer points);
+
+    // 会员未过期时在原到期时间上顺延，否则从当前时间开始计算
+    @Query(value = "UPDATE users SET vip_expire_date = GREATEST(COALESCE(vip_expire_date, :now), :now) " +
+                   "+ make_interval(days => :days) WHERE id = :userId RETURNING *",
+           nativeQuery = true)
+    Optional<User> extendVip(@Param("userId") Long userId, @Param("days") Integer days,
+                             @Param("now") LocalDateTime now);
 } 
\ No newline at end of file
@@ -0,0 +1,114 @@
+package org.tokomoapp.tokomo_be.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * BK 树：按 Levenshtein 距离组织词条，查询时利用三角不等式只访问距离范围内的子树。
+ * 不支持删除，失效词条由调用方在结果中过滤，重建时整体清空。
+ *
+ * 非线程安全，由调用方负责加锁。
+ */
+public class BkTree {
+
+    private Node root;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    public void add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int d = distance(node.term, term);
+            if (d == 0) {
+                return;
+            }
+            Node child = node.children != null ? node.children.get(d) : null;
+            if (child == null) {
+                if (node.children == null) {
+                    node.children = new HashMap<>(4);
+                }
+                node.children.put(d, new Node(term));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * 对与 query 距离不超过 maxDistance 的每个词条回调 (词条, 距离)
+     */
+    public void search(String query, int maxDistance, ObjIntConsumer<String> consumer) {
+        if (root == null) {
+            return;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int d = distance(node.term, query);
+            if (d <= maxDistance) {
+                consumer.accept(node.term, d);
+            }
+            if (node.children == null) {
+                continue;
+            }
+            for (Map.Entry<Integer, Node> entry : node.children.entrySet()) {
+                int edge = entry.getKey();
+                if (edge >= d - maxDistance && edge <= d + maxDistance) {
+                    pending.push(entry.getValue());
+                }
+            }
+        }
+    }
+
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String t = a;
+            a = b;
+            b = t;
+        }
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] t = prev;
+            prev = curr;
+            curr = t;
+        }
+        return prev[b.length()];
+    }
+
+    private static final class Node {
+        final String term;
+        Map<Integer, Node> children;
+
+        Node(String term) {
+            this.term = term;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package org.tokomoapp.tokomo_be.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.tokomoapp.tokomo_be.search.NgramIndex.Postings;
+
+/**
+ * 容错搜索索引。名称拆成词条（英文单词、数字、连续汉字），汉字词条另以全拼和拼音首字母作为别名；
+ * 中文名称通常不分词，连续汉字再按相邻两字切出子词条（如 "勇者传说" -> "传说"、"chuanshuo"），
+ * 整个名称的首字母缩写（如 "Final Fantasy" -> "ff"、"勇者传说" -> "yzcs"）也作为一个词条。
+ * 词条 -> 有序 id 列表；含字母且长度不小于 4 的词条放入 BK 树，按编辑距离查找近似词。
+ *
+ * 查询按同样规则拆词，每个查询词取命中词条的最高分（精确 1 分，编辑距离 d 扣 d/(长度+1)），
+ * 名称得分为各查询词得分的平均值，返回得分最高的前 limit 个 id。
+ *
+ * 常见词条的倒排表可能覆盖目录的很大一部分，不逐个打分：每个命中词条最多取 id 最小的
+ * MAX_CANDIDATES_PER_TERM 个作为候选（同分按 id 升序，单个词条时结果不变），
+ * 候选确定后再按全部命中词条计算得分，长倒排表只对候选做二分查找。
+ *
+ * 非线程安全，由调用方负责加锁。
+ */
+public class FuzzyIndex {
+
+    static final int MIN_FUZZY_LENGTH = 4;
+
+    // 汉字按全拼匹配（同音错字）时的分数折扣
+    static final float PINYIN_WEIGHT = 0.9f;
+
+    // 每个命中词条最多提供的候选 id 数
+    static final int MAX_CANDIDATES_PER_TERM = 1000;
+
+    private final Map<Long, String[]> keys = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final BkTree tree = new BkTree();
+
+    public int size() {
+        return keys.size();
+    }
+
+    public void clear() {
+        keys.clear();
+        postings.clear();
+        tree.clear();
+    }
+
+    /**
+     * 添加或替换 id 对应的名称
+     */
+    public void put(long id, String text) {
+        remove(id);
+        if (text == null) {
+            return;
+        }
+        String[] terms = terms(text);
+        keys.put(id, terms);
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                list = new Postings();
+                postings.put(term, list);
+                if (isFuzzy(term)) {
+                    tree.add(term);
+                }
+            }
+            list.add(id);
+        }
+    }
+
+    public void remove(long id) {
+        String[] terms = keys.remove(id);
+        if (terms == null) {
+            return;
+        }
+        // BK 树不支持删除，词条留在树中，查询时跳过已没有倒排表的词条
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * 得分从高到低的前 limit 个 id，同分按 id 升序
+     */
+    public long[] search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+
+        // 每个查询词命中的词条及其分数
+        List<List<Match>> slots = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            List<Match> matches = new ArrayList<>();
+            collect(token, 1f, matches);
+            if (PinyinUtil.isHan(token.charAt(0))) {
+                collect(PinyinUtil.full(token), PINYIN_WEIGHT, matches);
+            }
+            slots.add(matches);
+        }
+
+        long[] candidates = candidates(slots, Math.max(limit, MAX_CANDIDATES_PER_TERM));
+        int count = candidates.length;
+        int slotCount = slots.size();
+
+        // candidates[i] 在第 slot 个查询词上的得分为 scores[i * slotCount + slot]
+        float[] scores = new float[count * slotCount];
+        for (int slot = 0; slot < slotCount; slot++) {
+            for (Match match : slots.get(slot)) {
+                Postings list = match.postings;
+                if (list.size <= count) {
+                    for (int i = 0; i < list.size; i++) {
+                        int pos = Arrays.binarySearch(candidates, list.ids[i]);
+                        if (pos >= 0) {
+                            raise(scores, pos * slotCount + slot, match.score);
+                        }
+                    }
+                } else {
+                    for (int pos = 0; pos < count; pos++) {
+                        if (Arrays.binarySearch(list.ids, 0, list.size, candidates[pos]) >= 0) {
+                            raise(scores, pos * slotCount + slot, match.score);
+                        }
+                    }
+                }
+            }
+        }
+
+        // 小顶堆保留前 limit 个
+        PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1);
+        for (int pos = 0; pos < count; pos++) {
+            float total = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                total += scores[pos * slotCount + slot];
+            }
+            Scored scored = new Scored(candidates[pos], total / slotCount);
+            if (top.size() < limit) {
+                top.add(scored);
+            } else if (scored.compareTo(top.peek()) > 0) {
+                top.poll();
+                top.add(scored);
+            }
+        }
+
+        long[] result = new long[top.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = top.poll().id;
+        }
+        return result;
+    }
+
+    private void collect(String term, float weight, List<Match> matches) {
+        Postings exact = postings.get(term);
+        if (exact != null) {
+            matches.add(new Match(exact, weight));
+        }
+
+        int maxDistance = maxDistance(term);
+        if (maxDistance == 0) {
+            return;
+        }
+        tree.search(term, maxDistance, (key, d) -> {
+            Postings list = postings.get(key);
+            if (d > 0 && list != null) {
+                matches.add(new Match(list, weight * (1f - (float) d / (term.length() + 1))));
+            }
+        });
+    }
+
+    // 每个命中词条取前 perTerm 个 id，合并去重后升序返回
+    private static long[] candidates(List<List<Match>> slots, int perTerm) {
+        int total = 0;
+        for (List<Match> matches : slots) {
+            for (Match match : matches) {
+                total += Math.min(match.postings.size, perTerm);
+            }
+        }
+        long[] ids = new long[total];
+        int n = 0;
+        for (List<Match> matches : slots) {
+            for (Match match : matches) {
+                int take = Math.min(match.postings.size, perTerm);
+                System.arraycopy(match.postings.ids, 0, ids, n, take);
+                n += take;
+            }
+        }
+        Arrays.sort(ids);
+        int unique = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || ids[unique - 1] != ids[i]) {
+                ids[unique++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, unique);
+    }
+
+    private static void raise(float[] scores, int index, float score) {
+        if (score > scores[index]) {
+            scores[index] = score;
+        }
+    }
+
+    // 短词只做精确匹配，较长的词允许更多错字
+    static int maxDistance(String term) {
+        if (!isFuzzy(term)) {
+            return 0;
+        }
+        return term.length() <= 6 ? 1 : 2;
+    }
+
+    private static boolean isFuzzy(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < term.length(); i++) {
+            if (!Character.isDigit(term.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 词条、汉字词条的全拼与首字母、汉字两字子词条及其全拼、整个名称的首字母缩写
+    static String[] terms(String text) {
+        List<String> tokens = tokenize(text);
+        Set<String> terms = new LinkedHashSet<>();
+        StringBuilder acronym = new StringBuilder();
+        boolean hasHan = false;
+        for (String token : tokens) {
+            terms.add(token);
+            if (PinyinUtil.isHan(token.charAt(0))) {
+                hasHan = true;
+                terms.add(PinyinUtil.full(token));
+                String initials = PinyinUtil.initials(token);
+                if (initials.length() > 1) {
+                    terms.add(initials);
+                }
+                if (token.length() > 2) {
+                    for (int i = 0; i + 2 <= token.length(); i++) {
+                        String pair = token.substring(i, i + 2);
+                        terms.add(pair);
+                        terms.add(PinyinUtil.full(pair));
+                    }
+                }
+                acronym.append(initials);
+            } else {
+                acronym.append(token.charAt(0));
+            }
+        }
+        if (acronym.length() > 1 && (tokens.size() > 1 || hasHan)) {
+            terms.add(acronym.toString());
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    /**
+     * 小写后按连续的汉字、连续的其他字母或数字切分，其余字符作为分隔符
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String s = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        boolean han = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            boolean isHan = PinyinUtil.isHan(c);
+            boolean word = isHan || Character.isLetterOrDigit(c);
+            if (start >= 0 && (!word || isHan != han)) {
+                tokens.add(s.substring(start, i));
+                start = -1;
+            }
+            if (word && start < 0) {
+                start = i;
+                han = isHan;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(s.substring(start));
+        }
+        return tokens;
+    }
+
+    private static final class Match {
+        final Postings postings;
+        final float score;
+
+        Match(Postings postings, float score) {
+            this.postings = postings;
+            this.score = score;
+        }
+    }
+
+    private static final class Scored implements Comparable<Scored> {
+        final long id;
+        final float score;
+
+        Scored(long id, float score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        // 分数高者大，同分时 id 小者大
+        @Override
+        public int compareTo(Scored other) {
+            int c = Float.compare(score, other.score);
+            return c != 0 ? c : Long.compare(other.id, id);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.tokomoapp.tokomo_be.search;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.stereotype.Component;
+import org.tokomoapp.tokomo_be.model.Game;
+
+/**
+ * 常驻内存的游戏名称搜索索引，启动时全量构建，之后由 GameServiceImpl 增量维护。
+ * 只保存 id 与名称，搜索只返回 id，游戏对象由调用方从 GameCatalog 快照中取出。
+ * 精确模式使用三元组子串索引，容错模式使用 FuzzyIndex（编辑距离与拼音），
+ * 输入提示使用按购买次数排序的 PrefixTrie。
+ */
+@Component
+public class GameSearchIndex {
+
+    private final NgramIndex nameIndex = new NgramIndex();
+    private final FuzzyIndex fuzzyIndex = new FuzzyIndex();
+    private final PrefixTrie suggestTrie = new PrefixTrie();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // 目录版本号，每次写入后递增，搜索结果缓存据此判断是否过期
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * 有名称、可被搜索的游戏数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return fuzzyIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<Game> allGames) {
+        rebuild(allGames, Map.of());
+    }
+
+    /**
+     * popularity：游戏 id -> 购买次数，决定输入提示的排序
+     */
+    public void rebuild(Collection<Game> allGames, Map<Long, Long> popularity) {
+        lock.writeLock().lock();
+        try {
+            nameIndex.clear();
+            fuzzyIndex.clear();
+            suggestTrie.clear();
+            suggestTrie.setPopularity(popularity);
+            for (Game game : allGames) {
+                putInternal(game);
+            }
+            ready = true;
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Game game) {
+        if (game == null || game.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            putInternal(game);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<Game> changed) {
+        lock.writeLock().lock();
+        try {
+            for (Game game : changed) {
+                if (game != null && game.getId() != null) {
+                    putInternal(game);
+                }
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long gameId) {
+        if (gameId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            nameIndex.remove(gameId);
+            fuzzyIndex.remove(gameId);
+            suggestTrie.remove(gameId);
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<Long> gameIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long gameId : gameIds) {
+                if (gameId != null) {
+                    nameIndex.remove(gameId);
+                    fuzzyIndex.remove(gameId);
+                    suggestTrie.remove(gameId);
+                }
+            }
+            version.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 名称包含关键字（忽略大小写）的游戏 id，按 id 升序
+     */
+    public long[] searchIds(String keyword) {
+        lock.readLock().lock();
+        try {
+            return nameIndex.search(keyword);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 容错搜索：得分从高到低的前 limit 个游戏 id
+     */
+    public long[] fuzzySearchIds(String keyword, int limit) {
+        lock.readLock().lock();
+        try {
+            return fuzzyIndex.search(keyword, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 记录一次购买，只影响输入提示的排序，不改变目录版本号
+     */
+    public void recordPurchase(Long gameId) {
+        if (gameId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            suggestTrie.addPopularity(gameId, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 名称以 prefix 开头（忽略大小写）的游戏中购买次数最多的前 limit 个 id
+     */
+    public long[] suggestIds(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return suggestTrie.suggest(NgramIndex.normalize(prefix), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putInternal(Game game) {
+        long id = game.getId();
+        String name = game.getGameName();
+        if (name != null) {
+            nameIndex.put(id, name);
+            fuzzyIndex.put(id, name);
+            suggestTrie.put(id, NgramIndex.normalize(name.trim()));
+        } else {
+            nameIndex.remove(id);
+            fuzzyIndex.remove(id);
+            suggestTrie.remove(id);
+        }
+    }
+}
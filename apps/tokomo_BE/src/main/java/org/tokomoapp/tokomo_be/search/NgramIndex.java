@@ -0,0 +1,184 @@
+package org.tokomoapp.tokomo_be.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 基于字符三元组（trigram）倒排表的子串索引。
+ * 每个 key 被拆成所有长度为 3 的字符片段，片段 -> 有序 id 列表。
+ * 查询时对关键字的片段做交集，再对候选项做一次 contains 校验。
+ *
+ * 非线程安全，由调用方负责加锁。
+ */
+public class NgramIndex {
+
+    static final int GRAM = 3;
+
+    private final Map<Long, String> keys = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    public static String normalize(String text) {
+        return text == null ? null : text.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public void clear() {
+        keys.clear();
+        postings.clear();
+    }
+
+    /**
+     * 添加或替换 id 对应的 key
+     */
+    public void put(long id, String text) {
+        remove(id);
+        String key = normalize(text);
+        if (key == null) {
+            return;
+        }
+        keys.put(id, key);
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            postings.computeIfAbsent(gramAt(key, i), g -> new Postings()).add(id);
+        }
+    }
+
+    public void remove(long id) {
+        String key = keys.remove(id);
+        if (key == null) {
+            return;
+        }
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            long gram = gramAt(key, i);
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * 返回 key 中包含 query（忽略大小写）的所有 id，按 id 升序
+     */
+    public long[] search(String query) {
+        String q = normalize(query);
+        if (q.length() < GRAM) {
+            return scan(q);
+        }
+
+        // 取最短的倒排表作为起点，依次与其他片段求交集
+        Postings[] lists = new Postings[q.length() - GRAM + 1];
+        int smallest = 0;
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(gramAt(q, i));
+            if (lists[i] == null) {
+                return new long[0];
+            }
+            if (lists[i].size < lists[smallest].size) {
+                smallest = i;
+            }
+        }
+
+        long[] candidates = Arrays.copyOf(lists[smallest].ids, lists[smallest].size);
+        int count = candidates.length;
+        for (int i = 0; i < lists.length && count > 0; i++) {
+            if (i != smallest) {
+                count = lists[i].retainAll(candidates, count);
+            }
+        }
+
+        // 片段全部命中不代表连续出现，需要再校验一次
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            if (keys.get(candidates[i]).contains(q)) {
+                candidates[matched++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, matched);
+    }
+
+    // 关键字不足一个片段时直接扫描内存中的 key
+    private long[] scan(String q) {
+        long[] result = new long[keys.size()];
+        int count = 0;
+        for (Map.Entry<Long, String> entry : keys.entrySet()) {
+            if (entry.getValue().contains(q)) {
+                result[count++] = entry.getKey();
+            }
+        }
+        result = Arrays.copyOf(result, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static long gramAt(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    /**
+     * 有序、去重的 long 数组，避免装箱
+     */
+    static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size > 0 && ids[size - 1] < id) {
+                append(id);
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * 就地保留 candidates[0..count) 中同时存在于本表的 id，返回剩余数量
+         */
+        int retainAll(long[] candidates, int count) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < size; i++) {
+                long id = candidates[i];
+                while (j < size && ids[j] < id) {
+                    j++;
+                }
+                if (j < size && ids[j] == id) {
+                    candidates[kept++] = id;
+                }
+            }
+            return kept;
+        }
+
+        private void append(long id) {
+            ensureCapacity();
+            ids[size++] = id;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.tokomoapp.tokomo_be.search;
+
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+
+/**
+ * 汉字转拼音（小写、不带声调），多音字取第一个读音
+ */
+public final class PinyinUtil {
+
+    private static final HanyuPinyinOutputFormat FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    private PinyinUtil() {
+    }
+
+    public static boolean isHan(char c) {
+        return Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN;
+    }
+
+    /**
+     * 全拼，例如 "传说" -> "chuanshuo"，非汉字原样保留
+     */
+    public static String full(String text) {
+        StringBuilder sb = new StringBuilder(text.length() * 4);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String pinyin = pinyin(c);
+            sb.append(pinyin != null ? pinyin : String.valueOf(c));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 拼音首字母，例如 "传说" -> "cs"，非汉字原样保留
+     */
+    public static String initials(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String pinyin = pinyin(c);
+            sb.append(pinyin != null ? pinyin.charAt(0) : c);
+        }
+        return sb.toString();
+    }
+
+    private static String pinyin(char c) {
+        if (!isHan(c)) {
+            return null;
+        }
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray(c, FORMAT);
+            return readings != null && readings.length > 0 ? readings[0] : null;
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            // FORMAT 固定为合法组合，不会出现
+            return null;
+        }
+    }
+}
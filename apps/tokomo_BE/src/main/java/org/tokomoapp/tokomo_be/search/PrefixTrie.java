@@ -0,0 +1,299 @@
+package org.tokomoapp.tokomo_be.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 名称前缀补全用的压缩前缀树（radix trie），边上保存字符串片段，节点数不超过名称数的两倍。
+ * 每个节点预先保存子树中热度最高的 TOP_K 个 id（热度降序，同热度按 id 升序），
+ * 查询只需沿前缀走到对应节点并复制该数组，与子树大小无关。
+ *
+ * 名称增删和热度变化时只更新根到该名称路径上的节点。
+ * 非线程安全，由调用方负责加锁。
+ */
+public class PrefixTrie {
+
+    public static final int TOP_K = 10;
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private final Node root = new Node("");
+    private final Map<Long, String> keys = new HashMap<>();
+    private final Map<Long, Long> popularity = new HashMap<>();
+
+    public int size() {
+        return keys.size();
+    }
+
+    public void clear() {
+        root.firsts = NO_CHARS;
+        root.children = NO_NODES;
+        root.terminals = NO_IDS;
+        root.top = NO_IDS;
+        keys.clear();
+        popularity.clear();
+    }
+
+    /**
+     * 批量设置热度，重建时需在 put 之前调用
+     */
+    public void setPopularity(Map<Long, Long> counts) {
+        popularity.putAll(counts);
+    }
+
+    /**
+     * 添加或替换 id 对应的名称，key 需已规范化
+     */
+    public void put(long id, String key) {
+        detach(id);
+        if (key == null || key.isEmpty()) {
+            return;
+        }
+        keys.put(id, key);
+
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < key.length()) {
+            int idx = node.indexOf(key.charAt(pos));
+            if (idx < 0) {
+                Node child = new Node(key.substring(pos));
+                node.addChild(child);
+                path.add(child);
+                node = child;
+                break;
+            }
+            Node child = node.children[idx];
+            int common = commonPrefix(child.label, key, pos);
+            if (common < child.label.length()) {
+                // 在公共前缀处拆分边，新节点的子树与原子节点相同
+                Node mid = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                mid.addChild(child);
+                mid.top = child.top;
+                node.children[idx] = mid;
+                child = mid;
+            }
+            path.add(child);
+            node = child;
+            pos += common;
+        }
+        node.terminals = append(node.terminals, id);
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            offer(path.get(i), id);
+        }
+    }
+
+    /**
+     * 删除名称，同时清除热度
+     */
+    public void remove(long id) {
+        detach(id);
+        popularity.remove(id);
+    }
+
+    // 只删除名称，保留热度，改名时重新插入仍按原热度排序
+    private void detach(long id) {
+        String key = keys.remove(id);
+        if (key == null) {
+            return;
+        }
+        List<Node> path = path(key);
+        Node terminal = path.get(path.size() - 1);
+        terminal.terminals = without(terminal.terminals, id);
+
+        // 自底向上重算受影响的节点，顺带剪掉空叶子
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            if (i > 0 && node.terminals.length == 0 && node.children.length == 0) {
+                path.get(i - 1).removeChild(node.label.charAt(0));
+                continue;
+            }
+            if (contains(node.top, id)) {
+                recompute(node);
+            }
+        }
+    }
+
+    /**
+     * 记录热度变化（如一次购买），只会上升，路径上的节点按需把该 id 插入前列
+     */
+    public void addPopularity(long id, long delta) {
+        popularity.merge(id, delta, Long::sum);
+        String key = keys.get(id);
+        if (key == null) {
+            return;
+        }
+        List<Node> path = path(key);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            offer(path.get(i), id);
+        }
+    }
+
+    /**
+     * 以 prefix 开头的名称中热度最高的前 limit 个 id，prefix 需已规范化
+     */
+    public long[] suggest(String prefix, int limit) {
+        Node node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int idx = node.indexOf(prefix.charAt(pos));
+            if (idx < 0) {
+                return NO_IDS;
+            }
+            Node child = node.children[idx];
+            int common = commonPrefix(child.label, prefix, pos);
+            // 前缀在边的中间结束时，该边指向的子树就是结果范围
+            if (common < child.label.length() && pos + common < prefix.length()) {
+                return NO_IDS;
+            }
+            node = child;
+            pos += common;
+        }
+        return Arrays.copyOf(node.top, Math.min(limit, node.top.length));
+    }
+
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int pos = 0;
+        while (pos < key.length()) {
+            node = node.children[node.indexOf(key.charAt(pos))];
+            path.add(node);
+            pos += node.label.length();
+        }
+        return path;
+    }
+
+    // 把 id 放到 top 中应在的位置，超出 TOP_K 的丢弃
+    private void offer(Node node, long id) {
+        long[] top = without(node.top, id);
+        int pos = 0;
+        while (pos < top.length && better(top[pos], id)) {
+            pos++;
+        }
+        if (pos >= TOP_K) {
+            node.top = top;
+            return;
+        }
+        int length = Math.min(top.length + 1, TOP_K);
+        long[] result = new long[length];
+        System.arraycopy(top, 0, result, 0, pos);
+        result[pos] = id;
+        System.arraycopy(top, pos, result, pos + 1, length - pos - 1);
+        node.top = result;
+    }
+
+    // 由本节点的名称和各子节点的 top 合并出本节点的 top
+    private void recompute(Node node) {
+        node.top = NO_IDS;
+        for (long id : node.terminals) {
+            offer(node, id);
+        }
+        for (Node child : node.children) {
+            for (long id : child.top) {
+                offer(node, id);
+            }
+        }
+    }
+
+    private boolean better(long a, long b) {
+        long pa = popularity.getOrDefault(a, 0L);
+        long pb = popularity.getOrDefault(b, 0L);
+        return pa != pb ? pa > pb : a < b;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean contains(long[] ids, long id) {
+        for (long value : ids) {
+            if (value == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long[] append(long[] ids, long id) {
+        long[] result = Arrays.copyOf(ids, ids.length + 1);
+        result[ids.length] = id;
+        return result;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                long[] result = new long[ids.length - 1];
+                System.arraycopy(ids, 0, result, 0, i);
+                System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+                return result;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 子节点按边首字符有序保存在并列数组中，二分查找
+     */
+    private static final class Node {
+        String label;
+        char[] firsts = NO_CHARS;
+        Node[] children = NO_NODES;
+        long[] terminals = NO_IDS;
+        long[] top = NO_IDS;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int indexOf(char c) {
+            int idx = Arrays.binarySearch(firsts, c);
+            return idx >= 0 ? idx : -1;
+        }
+
+        void addChild(Node child) {
+            char c = child.label.charAt(0);
+            int pos = -Arrays.binarySearch(firsts, c) - 1;
+            char[] newFirsts = new char[firsts.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newFirsts[pos] = c;
+            newChildren[pos] = child;
+            System.arraycopy(firsts, pos, newFirsts, pos + 1, firsts.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        void removeChild(char c) {
+            int pos = Arrays.binarySearch(firsts, c);
+            if (pos < 0) {
+                return;
+            }
+            char[] newFirsts = new char[firsts.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            System.arraycopy(firsts, pos + 1, newFirsts, pos, firsts.length - pos - 1);
+            System.arraycopy(children, pos + 1, newChildren, pos, children.length - pos - 1);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+    }
+}
@@ -2,19 +2,31 @@ package org.tokomoapp.tokomo_be.service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import org.tokomoapp.tokomo_be.dto.CursorPage;
+import org.tokomoapp.tokomo_be.dto.GameImportReport;
+import org.tokomoapp.tokomo_be.dto.GamePurgeResult;
+import org.tokomoapp.tokomo_be.dto.SearchPage;
+import org.tokomoapp.tokomo_be.dto.GameImportReport.BatchProgress;
 import org.tokomoapp.tokomo_be.model.Game;
 
 public interface GameService {
     Optional<Game> getGameById(Long gameId);
-    List<Game> searchGames(String keyword);
+    SearchPage<Game> searchGames(String keyword, int offset, int limit);
+    List<Game> fuzzySearchGames(String keyword, int limit);
+    List<Game> suggestGames(String prefix, int limit);
     List<Game> getGames();
     void saveGame(Game game);
     void saveGames(List<Game> games);
     Optional<Game> getGameByGameName(String gameName);
     List<Game> getAllGames();
+    CursorPage<Game> getGamesPage(String cursor, int size);
+    void streamAllGames(Consumer<Game> consumer);
     Game updateGame(Long gameId, Game updates);
     void deleteGame(Long gameId);
-    void deleteAllGames();
+    GamePurgeResult deleteAllGames();
     List<Game> mergeGames(List<Game> newGames);
+    GameImportReport importGames(List<Game> games, String mode);
+    GameImportReport importGames(List<Game> games, String mode, Consumer<BatchProgress> onBatch);
 }
@@ -0,0 +1,15 @@
+package org.tokomoapp.tokomo_be.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.tokomoapp.tokomo_be.model.ImportJob;
+
+public interface ImportJobService {
+    ImportJob submitGameImport(String filePath, String mode);
+    ImportJob submitVipImport(String filePath);
+    ImportJob submitPaymentImport(String filePath);
+    Optional<ImportJob> getJob(String jobId);
+    List<ImportJob> getJobs();
+    boolean cancelJob(String jobId);
+}
@@ -1,7 +1,9 @@
 package org.tokomoapp.tokomo_be.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.tokomoapp.tokomo_be.dto.CursorPage;
 import org.tokomoapp.tokomo_be.model.PaymentCode;
 
 public interface PaymentService {
@@ -11,6 +13,10 @@ public interface PaymentService {
 
     List<PaymentCode> getAllPaymentCodes();
 
+    CursorPage<PaymentCode> getPaymentCodesPage(String cursor, int size);
+
+    void streamAllPaymentCodes(Consumer<PaymentCode> consumer);
+
     PaymentCode updatePaymentCode(Long id, PaymentCode updates);
 
     void deletePaymentCode(Long id);
@@ -18,4 +24,6 @@ public interface PaymentService {
     void deleteAllPaymentCodes();
 
     List<PaymentCode> savePaymentCodes(List<PaymentCode> codes);
+
+    void replaceAllPaymentCodes(List<PaymentCode> codes, int batchSize, Consumer<List<PaymentCode>> onBatch);
 }
@@ -0,0 +1,19 @@
+package org.tokomoapp.tokomo_be.service;
+
+import java.io.IOException;
+
+import org.tokomoapp.tokomo_be.dto.SiteConfigSnapshot;
+
+public interface SiteConfigService {
+    /**
+     * 当前配置，文件不存在或从未成功加载时返回 null
+     */
+    SiteConfigSnapshot getConfig();
+
+    /**
+     * 校验并写入新配置，立即生效
+     */
+    SiteConfigSnapshot updateConfig(String config) throws IOException;
+
+    void reload();
+}
@@ -3,15 +3,19 @@ package org.tokomoapp.tokomo_be.service;
 
 import java.util.List;
 
-import org.tokomoapp.tokomo_be.model.Game;
-import org.tokomoapp.tokomo_be.model.User;
-import org.tokomoapp.tokomo_be.model.UserGame;
+import org.springframework.data.domain.Pageable;
+import org.tokomoapp.tokomo_be.dto.UserGameDTO;
 
 public interface UserGameService {
         
     boolean existsByUserIdAndGameId(Long userId, Long gameId);
 
-    UserGame save(User user, Game game);
+    /**
+     * 扣除积分并写入购买记录，两步在同一事务内完成。cost 为 0 时不扣积分。
+     * 已购买时抛出 GameAlreadyOwnedException，不扣积分。
+     * 返回扣除后的积分，未扣除时返回 null。
+     */
+    Integer purchase(Long userId, Long gameId, int cost);
 
-    List<UserGame> getPurchaseHistory(Long userId);
+    List<UserGameDTO> getPurchaseHistory(Long userId, Pageable pageable);
 }
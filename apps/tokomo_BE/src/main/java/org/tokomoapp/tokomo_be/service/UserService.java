@@ -1,9 +1,11 @@
 package org.tokomoapp.tokomo_be.service;
 
+import org.tokomoapp.tokomo_be.dto.CursorPage;
 import org.tokomoapp.tokomo_be.dto.UserUpdateDTO;
 import org.tokomoapp.tokomo_be.model.User;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface UserService {
 
@@ -24,10 +26,12 @@ public interface UserService {
 
     String resetPassword(String username, String securityAnswer, String newPassword);
 
-    User deductPoints(Long userId, Integer points);
-
     List<User> getAllUsers();
 
+    CursorPage<User> getUsersPage(String cursor, int size);
+
+    void streamAllUsers(Consumer<User> consumer);
+
     User updateUser(Long id, UserUpdateDTO updates);
 
     User deleteUser(Long id);
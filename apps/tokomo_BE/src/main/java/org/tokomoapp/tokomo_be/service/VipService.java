@@ -1,14 +1,19 @@
 package org.tokomoapp.tokomo_be.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.tokomoapp.tokomo_be.dto.CursorPage;
 import org.tokomoapp.tokomo_be.model.VipCode;
 
 public interface VipService {
     List<VipCode> generateVipCodes(int amount, int validDays);
     List<VipCode> getAllVipCodes();
+    CursorPage<VipCode> getVipCodesPage(String cursor, int size);
+    void streamAllVipCodes(Consumer<VipCode> consumer);
     VipCode updateVipCode(Long id, VipCode updates);
     void deleteVipCode(Long id);
     void deleteAllVipCodes();
     List<VipCode> saveVipCodes(List<VipCode> codes);
+    void replaceAllVipCodes(List<VipCode> codes, int batchSize, Consumer<List<VipCode>> onBatch);
 }
@@ -1,38 +1,145 @@
 package org.tokomoapp.tokomo_be.service.impl;
 
 import org.springframework.transaction.annotation.Propagation;
+import org.tokomoapp.tokomo_be.cache.GameCatalog;
+import org.tokomoapp.tokomo_be.cache.SearchResultCache;
+import org.tokomoapp.tokomo_be.dto.CursorPage;
+import org.tokomoapp.tokomo_be.dto.GameImportReport;
+import org.tokomoapp.tokomo_be.dto.GamePurgeResult;
+import org.tokomoapp.tokomo_be.dto.SearchPage;
+import org.tokomoapp.tokomo_be.dto.GameImportReport.BatchProgress;
 import org.tokomoapp.tokomo_be.model.Game;
 import org.tokomoapp.tokomo_be.repository.GameRepository;
 import org.tokomoapp.tokomo_be.repository.UserGameRepository;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
 import org.tokomoapp.tokomo_be.service.GameService;
+import org.tokomoapp.tokomo_be.util.CursorUtil;
 import org.tokomoapp.tokomo_be.util.ExcelGameReader;
-import org.tokomoapp.tokomo_be.util.GameSearchUtil;
+import org.tokomoapp.tokomo_be.util.TransactionUtil;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.ArrayList;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.HashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 public class GameServiceImpl implements GameService {
     private static final Logger logger = LoggerFactory.getLogger(GameServiceImpl.class);
+
+    private static final String UPSERT_BY_NAME_SQL =
+        "INSERT INTO games (game_type, game_name, download_url, password, extract_password, note) " +
+        "VALUES (?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (game_name) DO UPDATE SET game_type = EXCLUDED.game_type, " +
+        "download_url = EXCLUDED.download_url, password = EXCLUDED.password, " +
+        "extract_password = EXCLUDED.extract_password, note = EXCLUDED.note";
+
+    // 覆盖模式与 updateGame 一致：只更新非空字段
+    private static final String UPDATE_BY_ID_SQL =
+        "UPDATE games SET game_type = COALESCE(?, game_type), game_name = COALESCE(?, game_name), " +
+        "download_url = COALESCE(?, download_url), password = COALESCE(?, password), " +
+        "extract_password = COALESCE(?, extract_password), note = COALESCE(?, note) WHERE id = ?";
+
+    // 按 id 顺序每次删除一批没有购买记录的游戏，返回被删除的 id
+    private static final String PURGE_CHUNK_SQL =
+        "DELETE FROM games WHERE id IN (" +
+        "SELECT g.id FROM games g WHERE g.id > ? " +
+        "AND NOT EXISTS (SELECT 1 FROM user_games ug WHERE ug.game_id = g.id) " +
+        "ORDER BY g.id LIMIT ?) RETURNING id";
+
+    private static final String SELECT_BY_IDS_SQL =
+        "SELECT id, game_type, game_name, download_url, password, extract_password, note " +
+        "FROM games WHERE id = ANY (?)";
+
+    private static final RowMapper<Game> GAME_ROW_MAPPER = (rs, rowNum) -> {
+        Game game = new Game();
+        game.setId(rs.getLong("id"));
+        game.setGameType(rs.getString("game_type"));
+        game.setGameName(rs.getString("game_name"));
+        game.setDownloadUrl(rs.getString("download_url"));
+        game.setPassword(rs.getString("password"));
+        game.setExtractPassword(rs.getString("extract_password"));
+        game.setNote(rs.getString("note"));
+        return game;
+    };
+
+    private static final String PURCHASED_GAME_IDS_SQL =
+        "SELECT g.id FROM games g WHERE EXISTS (SELECT 1 FROM user_games ug WHERE ug.game_id = g.id) ORDER BY g.id";
     
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private GameSearchIndex gameSearchIndex;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Autowired
+    private GameCatalog gameCatalog;
+
     @Autowired
     private UserGameRepository userGameRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${game.import.batch-size}")
+    private int importBatchSize;
+
+    @Value("${game.purge.chunk-size}")
+    private int purgeChunkSize;
+
+    // 保证目录快照与搜索索引的"读取数据库 + 写入内存"整体串行执行
+    private final Object publishLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        Map<Long, Long> purchases = new HashMap<>();
+        for (Object[] row : userGameRepository.countPurchasesByGame()) {
+            purchases.put((Long) row[0], (Long) row[1]);
+        }
+        List<Game> games = gameRepository.findAll();
+        // 先建立目录快照，索引就绪后搜索结果都从快照中取出
+        gameCatalog.replace(games);
+        gameSearchIndex.rebuild(games, purchases);
+        logger.info("游戏搜索索引构建完成，共 {} 个游戏", gameSearchIndex.size());
+    }
+
+    // 只读查询优先走目录快照（无锁），快照尚未建立时查询数据库
     @Override
     public Optional<Game> getGameById(Long id) {
+        if (gameCatalog.isReady()) {
+            return gameCatalog.findById(id);
+        }
         return gameRepository.findById(id);
     }
     @Override
@@ -45,36 +152,95 @@ public class GameServiceImpl implements GameService {
     }
 
     public  void saveGame(Game game) {
-        gameRepository.save(game);
+        Long id = gameRepository.save(game).getId();
+        TransactionUtil.afterCommit(() -> publishCommitted(List.of(id)));
     }
 
     @Override
     public void saveGames(List<Game> games) {
-        gameRepository.saveAll(games);
+        List<Long> ids = gameRepository.saveAll(games).stream().map(Game::getId).toList();
+        TransactionUtil.afterCommit(() -> publishCommitted(ids));
     }
 
     @Override
-    public List<Game> searchGames(String keyword) {
-        List<Game> allGames = gameRepository.findAll();
-        return GameSearchUtil.searchGames(allGames, keyword).stream()
+    public SearchPage<Game> searchGames(String keyword, int offset, int limit) {
+        String normalized = keyword == null ? "" : SearchResultCache.normalize(keyword);
+        if (gameSearchIndex.isReady()) {
+            // 热门关键字直接复用缓存的 id 列表（按 id 升序），只在目录有变更后重新计算；
+            // 总数即 id 数组长度，只为当前页取出游戏对象
+            long[] ids = searchResultCache.get("exact:" + normalized, gameSearchIndex.getVersion(),
+                key -> gameSearchIndex.searchIds(normalized));
+            return new SearchPage<>(gameCatalog.findSanitized(ids, offset, limit), ids.length, offset, limit);
+        }
+        // 索引尚未构建完成时回退到数据库查询，由 game_name 的三元组索引过滤
+        String escaped = normalized.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        List<Game> games = gameRepository.searchByGameName(escaped, offset, limit).stream()
             .map(Game::sanitize)
             .collect(Collectors.toList());
+        return new SearchPage<>(games, gameRepository.countSearchByGameName(escaped), offset, limit);
+    }
+
+    @Override
+    public List<Game> fuzzySearchGames(String keyword, int limit) {
+        if (!gameSearchIndex.isReady()) {
+            // 索引尚未构建完成时退化为精确匹配
+            return searchGames(keyword, 0, limit).getItems();
+        }
+        String normalized = SearchResultCache.normalize(keyword);
+        long[] ids = searchResultCache.get("fuzzy:" + limit + ":" + normalized, gameSearchIndex.getVersion(),
+            key -> gameSearchIndex.fuzzySearchIds(normalized, limit));
+        return gameCatalog.findSanitized(ids, 0, ids.length);
+    }
+
+    @Override
+    public List<Game> suggestGames(String prefix, int limit) {
+        // 输入提示只走内存索引，索引尚未构建完成时返回空列表
+        if (prefix == null || prefix.isBlank() || !gameSearchIndex.isReady()) {
+            return List.of();
+        }
+        long[] ids = gameSearchIndex.suggestIds(prefix.trim(), limit);
+        return gameCatalog.findSanitized(ids, 0, ids.length);
     }
 
     @Override
     public Optional<Game> getGameByGameName(String gameName) {
+        if (gameCatalog.isReady()) {
+            return gameCatalog.findByName(gameName);
+        }
         return gameRepository.findByGameName(gameName);
     }
 
     @Override
     public List<Game> getAllGames() {
+        if (gameCatalog.isReady()) {
+            return gameCatalog.findAll();
+        }
         return gameRepository.findAll();
     }
 
+    @Override
+    public CursorPage<Game> getGamesPage(String cursor, int size) {
+        List<Game> games = gameRepository.findByIdGreaterThanOrderByIdAsc(
+            CursorUtil.decode(cursor), PageRequest.of(0, size));
+        return CursorPage.of(games, size, Game::getId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllGames(Consumer<Game> consumer) {
+        try (Stream<Game> games = gameRepository.streamAllOrderById()) {
+            games.forEach(game -> {
+                consumer.accept(game);
+                entityManager.detach(game);
+            });
+        }
+    }
+
     @Transactional
     @Override
     public Game updateGame(Long gameId, Game updates) {
-        Game game = getGameById(gameId)
+        // 修改需要受管实体，直接查询数据库
+        Game game = gameRepository.findById(gameId)
             .orElseThrow(() -> new RuntimeException("Game not found with id: " + gameId));
         
         // 更新所有非空字段
@@ -85,35 +251,56 @@ public class GameServiceImpl implements GameService {
         if (updates.getExtractPassword() != null) game.setExtractPassword(updates.getExtractPassword());
         if (updates.getNote() != null) game.setNote(updates.getNote());
         
-        return gameRepository.save(game);
+        Game saved = gameRepository.save(game);
+        TransactionUtil.afterCommit(() -> publishCommitted(List.of(gameId)));
+        return saved;
     }
 
     @Override
     @Transactional
     public void deleteGame(Long gameId) {
-        Game game = getGameById(gameId)
+        Game game = gameRepository.findById(gameId)
             .orElseThrow(() -> new RuntimeException("Game not found with id: " + gameId));
         gameRepository.delete(game);
+        TransactionUtil.afterCommit(() -> unpublish(List.of(gameId)));
     }
 
+    // 不开启外层事务：每一批在各自的事务中删除并提交，避免大目录长时间持有一个事务
     @Override
-    @Transactional
-    public void deleteAllGames() {
-        List<Game> allGames = gameRepository.findAll();
-        for (Game game : allGames) {
-            if (!userGameRepository.existsByGameId(game.getId())) {
-                gameRepository.delete(game);
-            } else {
-                logger.info("跳过删除游戏 [id={}，name={}]，因为存在用户购买记录", 
-                    game.getId(), game.getGameName());
+    public GamePurgeResult deleteAllGames() {
+        List<Long> deletedIds = new ArrayList<>();
+        long lastId = Long.MIN_VALUE;
+        try {
+            while (true) {
+                long afterId = lastId;
+                List<Long> ids = transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForList(PURGE_CHUNK_SQL, Long.class, afterId, purgeChunkSize));
+                if (ids == null || ids.isEmpty()) {
+                    break;
+                }
+                for (Long id : ids) {
+                    lastId = Math.max(lastId, id);
+                }
+                deletedIds.addAll(ids);
             }
+        } finally {
+            // 目录快照每次替换都要复制整个目录，快照与搜索索引都在结束时一起更新一次；
+            // 某一批失败时前面已提交的批次同样要移除
+            unpublish(deletedIds);
         }
+
+        List<Long> skippedIds = jdbcTemplate.queryForList(PURCHASED_GAME_IDS_SQL, Long.class);
+        if (!skippedIds.isEmpty()) {
+            logger.info("跳过删除 {} 个游戏，因为存在用户购买记录", skippedIds.size());
+        }
+        return new GamePurgeResult(deletedIds.size(), skippedIds);
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public List<Game> mergeGames(List<Game> newGames) {
         List<Game> mergedGames = new ArrayList<>();
+        List<Game> changedGames = new ArrayList<>();
         
         for (Game newGame : newGames) {
             try {
@@ -126,6 +313,7 @@ public class GameServiceImpl implements GameService {
                     existingGame.get().setNote(newGame.getNote());
                     gameRepository.save(existingGame.get());
                     mergedGames.add(existingGame.get());
+                    changedGames.add(existingGame.get());
                 }else {
                     Game game = new Game();
                     game.setGameName(newGame.getGameName());
@@ -134,7 +322,7 @@ public class GameServiceImpl implements GameService {
                     game.setPassword(newGame.getPassword());
                     game.setExtractPassword(newGame.getExtractPassword());
                     game.setNote(newGame.getNote());
-                    gameRepository.save(game);
+                    changedGames.add(gameRepository.save(game));
                     mergedGames.add(newGame);
                 }
             } catch (Exception e) {
@@ -142,8 +330,141 @@ public class GameServiceImpl implements GameService {
                     newGame.getId(), newGame.getGameName(), e.getMessage());
             }
         }
+        List<Long> changedIds = changedGames.stream().map(Game::getId).toList();
+        TransactionUtil.afterCommit(() -> publishCommitted(changedIds));
         
         return mergedGames;
     }
-}
 
+    @Override
+    public GameImportReport importGames(List<Game> games, String mode) {
+        return importGames(games, mode, batch -> { });
+    }
+
+    @Override
+    public GameImportReport importGames(List<Game> games, String mode, Consumer<BatchProgress> onBatch) {
+        boolean overwrite = "overwrite".equals(mode);
+        GameImportReport report = new GameImportReport(mode, games.size());
+
+        // 一次查询取出已有记录，在内存中区分新增与更新
+        Set<Long> existingIds = overwrite ? new HashSet<>(gameRepository.findAllIds()) : Set.of();
+        Set<String> existingNames = new HashSet<>(gameRepository.findAllGameNames());
+        List<Long> importedIds = new ArrayList<>();
+
+        try {
+            for (int start = 0, batch = 1; start < games.size(); start += importBatchSize, batch++) {
+                List<Game> chunk = games.subList(start, Math.min(start + importBatchSize, games.size()));
+                BatchProgress progress = new BatchProgress(batch, chunk.size());
+                try {
+                    // 每批单独提交，整批在一个事务中写入
+                    importedIds.addAll(writeGames(chunk, overwrite, existingIds, existingNames, progress));
+                } catch (Exception e) {
+                    // 整批失败时逐行重试，只记录出错的行，其余行照常写入
+                    logger.warn("导入游戏第 {} 批时出错，改为逐行写入: {}", batch, e.getMessage());
+                    progress.setError(e.getMessage());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Game game = chunk.get(i);
+                        try {
+                            importedIds.addAll(writeGames(List.of(game), overwrite, existingIds, existingNames, progress));
+                        } catch (Exception rowError) {
+                            logger.error("导入游戏第 {} 条 [name={}] 时出错: {}", start + i + 1, game.getGameName(), rowError.getMessage());
+                            progress.addFailedRow(String.format("第 %d 条 [%s]: %s", start + i + 1, game.getGameName(), rowError.getMessage()));
+                        }
+                    }
+                }
+                report.addBatch(progress);
+                logger.info("导入游戏第 {} 批完成：{} 条，新增 {}，更新 {}，失败 {}",
+                    batch, chunk.size(), progress.getInserted(), progress.getUpdated(), progress.getFailed());
+                onBatch.accept(progress);
+            }
+        } finally {
+            // 目录快照每次替换都要复制整个目录，快照与搜索索引都在结束时一起更新一次；
+            // 导入被取消或中途出错时，已提交的批次同样要写入
+            publishCommitted(importedIds);
+        }
+        return report;
+    }
+
+    /**
+     * 按 id 重新读取已提交的行写入目录快照与搜索索引，数据库中已不存在的 id 一并移除。
+     * 不使用事务内的实体：并发修改同一游戏时，各事务的提交后回调不一定按提交顺序执行，
+     * 读取与写入在同一把锁内完成，最后执行的回调读到的总是最新提交的数据。
+     * 用 JDBC 直接查询：提交后回调中 JPA 会返回持久化上下文里的旧实体，新开事务又要再占一个连接
+     */
+    private void publishCommitted(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        synchronized (publishLock) {
+            List<Game> games = new ArrayList<>(idList.size());
+            for (int start = 0; start < idList.size(); start += importBatchSize) {
+                Long[] chunk = idList.subList(start, Math.min(start + importBatchSize, idList.size())).toArray(Long[]::new);
+                games.addAll(jdbcTemplate.query(SELECT_BY_IDS_SQL,
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", chunk)), GAME_ROW_MAPPER));
+            }
+            Set<Long> found = games.stream().map(Game::getId).collect(Collectors.toSet());
+            List<Long> missing = idList.stream().filter(id -> !found.contains(id)).toList();
+
+            gameCatalog.upsert(games);
+            gameSearchIndex.putAll(games);
+            if (!missing.isEmpty()) {
+                gameCatalog.remove(missing);
+                gameSearchIndex.removeAll(missing);
+            }
+        }
+    }
+
+    private void unpublish(Collection<Long> ids) {
+        synchronized (publishLock) {
+            gameCatalog.remove(ids);
+            gameSearchIndex.removeAll(ids);
+        }
+    }
+
+    /**
+     * 在一个事务中写入 rows 并返回写入的游戏 id，由调用方写入目录快照与搜索索引。
+     * 提交成功后才计入 progress 和 existingNames，失败时两者都不变
+     */
+    private List<Long> writeGames(List<Game> rows, boolean overwrite, Set<Long> existingIds,
+                                  Set<String> existingNames, BatchProgress progress) {
+        List<Object[]> updateArgs = new ArrayList<>();
+        List<Object[]> upsertArgs = new ArrayList<>();
+        List<Long> updatedIds = new ArrayList<>();
+        List<String> upsertedNames = new ArrayList<>();
+        Set<String> newNames = new HashSet<>();
+
+        for (Game game : rows) {
+            if (overwrite && game.getId() != null && existingIds.contains(game.getId())) {
+                updateArgs.add(new Object[] {game.getGameType(), game.getGameName(), game.getDownloadUrl(),
+                    game.getPassword(), game.getExtractPassword(), game.getNote(), game.getId()});
+                updatedIds.add(game.getId());
+            } else {
+                upsertArgs.add(new Object[] {game.getGameType(), game.getGameName(), game.getDownloadUrl(),
+                    game.getPassword(), game.getExtractPassword(), game.getNote()});
+                upsertedNames.add(game.getGameName());
+                // 名称已存在时由 ON CONFLICT 转为更新
+                if (!existingNames.contains(game.getGameName())) {
+                    newNames.add(game.getGameName());
+                }
+            }
+        }
+
+        List<Long> changed = transactionTemplate.execute(status -> {
+            if (!updateArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_BY_ID_SQL, updateArgs);
+            }
+            if (!upsertArgs.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_BY_NAME_SQL, upsertArgs);
+            }
+            List<Long> written = new ArrayList<>(gameRepository.findIdsByGameNameIn(upsertedNames));
+            written.addAll(updatedIds);
+            return written;
+        });
+
+        existingNames.addAll(newNames);
+        progress.setInserted(progress.getInserted() + newNames.size());
+        progress.setUpdated(progress.getUpdated() + rows.size() - newNames.size());
+        return changed;
+    }
+}
@@ -0,0 +1,220 @@
+package org.tokomoapp.tokomo_be.service.impl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.tokomoapp.tokomo_be.dto.GameImportReport;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.model.ImportJob;
+import org.tokomoapp.tokomo_be.model.PaymentCode;
+import org.tokomoapp.tokomo_be.model.VipCode;
+import org.tokomoapp.tokomo_be.service.GameService;
+import org.tokomoapp.tokomo_be.service.ImportJobService;
+import org.tokomoapp.tokomo_be.service.PaymentService;
+import org.tokomoapp.tokomo_be.service.VipService;
+import org.tokomoapp.tokomo_be.util.ExcelGameReader;
+import org.tokomoapp.tokomo_be.util.ExcelPaymentReader;
+import org.tokomoapp.tokomo_be.util.ExcelVipReader;
+
+@Service
+public class ImportJobServiceImpl implements ImportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobServiceImpl.class);
+
+    // 内存中最多保留的已结束任务数
+    private static final int MAX_FINISHED_JOBS = 100;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private VipService vipService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    @Qualifier("importExecutor")
+    private AsyncTaskExecutor importExecutor;
+
+    @Value("${excel.streaming.threshold-bytes}")
+    private long streamingThreshold;
+
+    @Value("${game.import.batch-size}")
+    private int batchSize;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    private interface JobTask {
+        String run(ImportJob job) throws Exception;
+    }
+
+    @Override
+    public ImportJob submitGameImport(String filePath, String mode) {
+        return submit(new ImportJob("games"), filePath, job -> {
+            // 记录重复的游戏名称，同名以最后一行为准
+            Map<String, Game> gameMap = new LinkedHashMap<>();
+            ExcelGameReader.readGamesFromExcel(filePath, streamingThreshold, game -> {
+                checkCancelled(job);
+                job.addRowsParsed(1);
+                if (gameMap.put(game.getGameName(), game) != null) {
+                    job.addDuplicates(1);
+                }
+            });
+
+            GameImportReport report = gameService.importGames(new ArrayList<>(gameMap.values()), mode, batch -> {
+                job.addRowsWritten(batch.getInserted() + batch.getUpdated());
+                job.addErrors(batch.getFailed());
+                checkCancelled(job);
+            });
+            return String.format("Imported %d games: %d inserted, %d updated, %d failed",
+                report.getTotal(), report.getInserted(), report.getUpdated(), report.getFailed());
+        });
+    }
+
+    @Override
+    public ImportJob submitVipImport(String filePath) {
+        return submit(new ImportJob("vip"), filePath, job -> {
+            Map<String, VipCode> codes = new LinkedHashMap<>();
+            ExcelVipReader.readVipCodesFromExcel(filePath, streamingThreshold, code -> {
+                checkCancelled(job);
+                job.addRowsParsed(1);
+                if (codes.put(code.getCode(), code) != null) {
+                    job.addDuplicates(1);
+                }
+            });
+
+            // 删除所有现有VIP码并分批保存新的，取消或写入失败时整体回滚
+            checkCancelled(job);
+            replaceAll(job, new ArrayList<>(codes.values()), vipService::replaceAllVipCodes);
+            return String.format("Successfully imported %d VIP codes", job.getRowsWritten());
+        });
+    }
+
+    @Override
+    public ImportJob submitPaymentImport(String filePath) {
+        return submit(new ImportJob("payment"), filePath, job -> {
+            Map<String, PaymentCode> codes = new LinkedHashMap<>();
+            ExcelPaymentReader.readPaymentCodesFromExcel(filePath, streamingThreshold, code -> {
+                checkCancelled(job);
+                job.addRowsParsed(1);
+                if (codes.put(code.getCode(), code) != null) {
+                    job.addDuplicates(1);
+                }
+            });
+
+            // 删除所有现有支付码并分批保存新的，取消或写入失败时整体回滚
+            checkCancelled(job);
+            replaceAll(job, new ArrayList<>(codes.values()), paymentService::replaceAllPaymentCodes);
+            return String.format("Successfully imported %d payment codes", job.getRowsWritten());
+        });
+    }
+
+    @Override
+    public Optional<ImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    @Override
+    public List<ImportJob> getJobs() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(ImportJob::getCreatedAt).reversed())
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean cancelJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.requestCancel();
+        // 仍在排队的任务立即标记为已取消，轮到执行时直接跳过
+        if (job.getStatus() == ImportJob.Status.PENDING) {
+            job.finish(ImportJob.Status.CANCELLED, "Import cancelled before start");
+        }
+        return true;
+    }
+
+    private ImportJob submit(ImportJob job, String filePath, JobTask task) {
+        pruneFinishedJobs();
+        jobs.put(job.getId(), job);
+        try {
+            importExecutor.execute(() -> run(job, filePath, task));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            new File(filePath).delete();
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(ImportJob job, String filePath, JobTask task) {
+        if (job.isCancelRequested()) {
+            if (!job.isFinished()) {
+                job.finish(ImportJob.Status.CANCELLED, "Import cancelled before start");
+            }
+            new File(filePath).delete();
+            return;
+        }
+        job.start();
+        try {
+            job.finish(ImportJob.Status.COMPLETED, task.run(job));
+        } catch (CancellationException e) {
+            job.finish(ImportJob.Status.CANCELLED, "Import cancelled after " + job.getRowsWritten() + " rows written");
+        } catch (Exception e) {
+            logger.error("导入任务 [id={}，type={}] 失败: {}", job.getId(), job.getType(), e.getMessage());
+            job.finish(ImportJob.Status.FAILED, e.getMessage());
+        } finally {
+            new File(filePath).delete();
+        }
+    }
+
+    private interface ReplaceWriter<T> {
+        void replaceAll(List<T> rows, int batchSize, Consumer<List<T>> onBatch);
+    }
+
+    // 删除与写入在同一事务中，每批写入后检查取消；回滚后已写入的行数清零
+    private <T> void replaceAll(ImportJob job, List<T> rows, ReplaceWriter<T> writer) {
+        try {
+            writer.replaceAll(rows, batchSize, chunk -> {
+                job.addRowsWritten(chunk.size());
+                checkCancelled(job);
+            });
+        } catch (RuntimeException e) {
+            job.resetRowsWritten();
+            throw e;
+        }
+    }
+
+    private static void checkCancelled(ImportJob job) {
+        if (job.isCancelRequested()) {
+            throw new CancellationException();
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        List<ImportJob> finished = jobs.values().stream()
+            .filter(ImportJob::isFinished)
+            .sorted(Comparator.comparing(ImportJob::getCreatedAt))
+            .collect(Collectors.toList());
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
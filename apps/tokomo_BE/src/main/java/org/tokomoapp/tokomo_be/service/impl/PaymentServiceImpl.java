@@ -2,13 +2,22 @@ package org.tokomoapp.tokomo_be.service.impl;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tokomoapp.tokomo_be.dto.CursorPage;
 import org.tokomoapp.tokomo_be.model.PaymentCode;
 import org.tokomoapp.tokomo_be.repository.PaymentCodeRepository;
 import org.tokomoapp.tokomo_be.service.PaymentService;
 import org.tokomoapp.tokomo_be.util.CodeUtil;
+import org.tokomoapp.tokomo_be.util.CursorUtil;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
 import org.springframework.stereotype.Service;
@@ -19,21 +28,36 @@ public class PaymentServiceImpl implements PaymentService {
     @Autowired
     private PaymentCodeRepository paymentCodeRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${code.generate.batch-size}")
+    private int generateBatchSize;
+
+    private static final String INSERT_CODE_SQL =
+        "INSERT INTO payment_codes (code, points, used) VALUES (?, ?, false) ON CONFLICT (code) DO NOTHING";
+
     @Transactional
     @Override
     public List<PaymentCode> generatePaymentCodes(int amount, int values) {
-        List<PaymentCode> codes = new ArrayList<>();
-        for (int i = 0; i < amount; i++) {
-            String code;
-            do {
-                code = CodeUtil.generateRandomCode();
-            } while (paymentCodeRepository.existsByCode(code));
-            
+        List<String> inserted = CodeUtil.insertUniqueCodes(amount, generateBatchSize, batch -> {
+            List<Object[]> args = new ArrayList<>(batch.size());
+            for (String code : batch) {
+                args.add(new Object[] { code, values });
+            }
+            return jdbcTemplate.batchUpdate(INSERT_CODE_SQL, args);
+        });
+
+        List<PaymentCode> codes = new ArrayList<>(inserted.size());
+        for (String code : inserted) {
             PaymentCode paymentCode = new PaymentCode();
             paymentCode.setCode(code);
             paymentCode.setPoints(values);
             paymentCode.setUsed(false);
-            codes.add(paymentCodeRepository.save(paymentCode));
+            codes.add(paymentCode);
         }
         return codes;
     }
@@ -48,6 +72,24 @@ public class PaymentServiceImpl implements PaymentService {
         return paymentCodeRepository.findAll();
     }
 
+    @Override
+    public CursorPage<PaymentCode> getPaymentCodesPage(String cursor, int size) {
+        List<PaymentCode> codes = paymentCodeRepository.findByIdGreaterThanOrderByIdAsc(
+            CursorUtil.decode(cursor), PageRequest.of(0, size));
+        return CursorPage.of(codes, size, PaymentCode::getId);
+    }
+
+    @Override
+    @Transactional
+    public void streamAllPaymentCodes(Consumer<PaymentCode> consumer) {
+        try (Stream<PaymentCode> codes = paymentCodeRepository.streamAllOrderById()) {
+            codes.forEach(code -> {
+                consumer.accept(code);
+                entityManager.detach(code);
+            });
+        }
+    }
+
     @Override
     @Transactional
     public PaymentCode updatePaymentCode(Long id, PaymentCode updates) {
@@ -81,4 +123,22 @@ public class PaymentServiceImpl implements PaymentService {
     public List<PaymentCode> savePaymentCodes(List<PaymentCode> codes) {
         return paymentCodeRepository.saveAll(codes);
     }
+
+    /**
+     * 删除全部支付码并分批写入 codes，整个过程在同一个事务中完成。
+     * 每批写入后调用 onBatch，onBatch 或任何一批写入抛出异常时整体回滚，原有支付码保持不变
+     */
+    @Override
+    @Transactional
+    public void replaceAllPaymentCodes(List<PaymentCode> codes, int batchSize, Consumer<List<PaymentCode>> onBatch) {
+        paymentCodeRepository.deleteAllInBatch();
+        for (int start = 0; start < codes.size(); start += batchSize) {
+            List<PaymentCode> chunk = codes.subList(start, Math.min(start + batchSize, codes.size()));
+            paymentCodeRepository.saveAll(chunk);
+            // 每批写出后清空持久化上下文，避免随行数增长
+            entityManager.flush();
+            entityManager.clear();
+            onBatch.accept(chunk);
+        }
+    }
 }
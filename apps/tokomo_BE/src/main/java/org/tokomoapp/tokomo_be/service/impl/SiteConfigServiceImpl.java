@@ -0,0 +1,186 @@
+package org.tokomoapp.tokomo_be.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.tokomoapp.tokomo_be.dto.SiteConfigSnapshot;
+import org.tokomoapp.tokomo_be.model.ApiResponse;
+import org.tokomoapp.tokomo_be.service.SiteConfigService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+@Service
+public class SiteConfigServiceImpl implements SiteConfigService {
+    private static final Logger logger = LoggerFactory.getLogger(SiteConfigServiceImpl.class);
+
+    private static final String FILE_NAME = "site-config.json";
+    private static final String DEFAULT_CONFIG = "classpath:static/config/site-config.json";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${config.path}")
+    private String configPath;
+
+    private Path configFile;
+    private WatchService watchService;
+    private volatile SiteConfigSnapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        configFile = Paths.get(configPath, FILE_NAME);
+        try {
+            Files.createDirectories(configFile.getParent());
+            copyDefaultIfMissing();
+        } catch (IOException e) {
+            logger.warn("Failed to prepare site config {}: {}", configFile, e.getMessage());
+        }
+        reload();
+        startWatcher();
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    @Override
+    public SiteConfigSnapshot getConfig() {
+        return snapshot;
+    }
+
+    @Override
+    public synchronized SiteConfigSnapshot updateConfig(String config) throws IOException {
+        SiteConfigSnapshot updated = parse(config);
+        Files.createDirectories(configFile.getParent());
+        // 先写临时文件再原子替换，监听线程不会读到写了一半的文件
+        Path tempFile = Files.createTempFile(configFile.getParent(), FILE_NAME, ".tmp");
+        try {
+            Files.write(tempFile, config.getBytes(StandardCharsets.UTF_8));
+            Files.move(tempFile, configFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        snapshot = updated;
+        return updated;
+    }
+
+    @Override
+    public synchronized void reload() {
+        if (!Files.exists(configFile)) {
+            return;
+        }
+        try {
+            String config = new String(Files.readAllBytes(configFile), StandardCharsets.UTF_8);
+            if (snapshot != null && snapshot.getConfig().equals(config)) {
+                return;
+            }
+            snapshot = parse(config);
+            logger.info("Site config loaded from {}", configFile);
+        } catch (IllegalArgumentException | IOException e) {
+            // 文件内容有误时继续使用上一次成功加载的配置
+            logger.warn("Failed to load site config {}: {}", configFile, e.getMessage());
+        }
+    }
+
+    private SiteConfigSnapshot parse(String config) {
+        JsonNode parsed;
+        byte[] body;
+        try {
+            parsed = objectMapper.readTree(config);
+            // 前端读取的 data 为配置原文，保持与之前的响应格式一致
+            body = objectMapper.writeValueAsBytes(new ApiResponse("ok", "配置获取成功", config));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid site config JSON: " + e.getOriginalMessage());
+        }
+        if (parsed == null || !parsed.isObject()) {
+            throw new IllegalArgumentException("Site config must be a JSON object");
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        return new SiteConfigSnapshot(config, parsed, body, etag);
+    }
+
+    // 配置文件不存在时，从classpath复制一份作为初始配置
+    private void copyDefaultIfMissing() throws IOException {
+        if (Files.exists(configFile)) {
+            return;
+        }
+        Resource defaultConfig = resourceLoader.getResource(DEFAULT_CONFIG);
+        if (!defaultConfig.exists()) {
+            return;
+        }
+        try (InputStream in = defaultConfig.getInputStream()) {
+            Files.copy(in, configFile);
+        }
+    }
+
+    private void startWatcher() {
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            configFile.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.warn("Site config hot reload disabled: {}", e.getMessage());
+            return;
+        }
+
+        Thread watcher = new Thread(this::watch, "site-config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || FILE_NAME.equals(String.valueOf(event.context()))) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    logger.warn("Site config directory is no longer accessible, hot reload stopped");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // 应用关闭
+        }
+    }
+}
@@ -1,34 +1,71 @@
 package org.tokomoapp.tokomo_be.service.impl;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.tokomoapp.tokomo_be.cache.EntitlementCache;
+import org.tokomoapp.tokomo_be.dto.UserGameDTO;
+import org.tokomoapp.tokomo_be.exception.GameAlreadyOwnedException;
+import org.tokomoapp.tokomo_be.exception.InsufficientPointsException;
+import org.tokomoapp.tokomo_be.repository.UserRepository;
 import org.tokomoapp.tokomo_be.repository.UserGameRepository;
-import org.tokomoapp.tokomo_be.model.Game;
-import org.tokomoapp.tokomo_be.model.User;
-import org.tokomoapp.tokomo_be.model.UserGame;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
 import org.tokomoapp.tokomo_be.service.UserGameService;
+import org.tokomoapp.tokomo_be.util.TransactionUtil;
 
 @Service
 public class UserGameServiceImpl implements UserGameService {
     @Autowired
     private UserGameRepository userGameRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntitlementCache entitlementCache;
+
+    @Autowired
+    private GameSearchIndex gameSearchIndex;
+
     @Override
     public boolean existsByUserIdAndGameId(Long userId, Long gameId) {
-        return userGameRepository.existsByUserIdAndGameId(userId, gameId);
+        return entitlementCache.owns(userId, gameId, userGameRepository::findGameIdsByUserId);
     }
     
 
     @Override
-    public UserGame save(User user, Game game) {
-        UserGame userGame = new UserGame(user, game);
-        return userGameRepository.save(userGame);
+    @Transactional
+    public Integer purchase(Long userId, Long gameId, int cost) {
+        // 先查购买记录再扣积分，已购买的用户积分不足时也应提示已拥有
+        if (existsByUserIdAndGameId(userId, gameId)) {
+            throw new GameAlreadyOwnedException("You already own this game");
+        }
+
+        Integer remainingPoints = null;
+        if (cost > 0) {
+            remainingPoints = userRepository.deductPointsIfSufficient(userId, cost)
+                .orElseThrow(() -> new InsufficientPointsException("Insufficient points. Required: " + cost));
+        }
+
+        // 已购买时抛出异常，事务回滚，上面的扣减一并撤销
+        if (userGameRepository.insertIfAbsent(userId, gameId, LocalDateTime.now()) == 0) {
+            // 购买记录已由其他事务提交，缓存却判断为未购买：本事务回滚后再让该用户重新加载
+            TransactionUtil.afterCompletion(() -> entitlementCache.invalidate(userId));
+            throw new GameAlreadyOwnedException("You already own this game");
+        }
+        TransactionUtil.afterCommit(() -> {
+            entitlementCache.add(userId, gameId);
+            gameSearchIndex.recordPurchase(gameId);
+        });
+        return remainingPoints;
     }
 
     @Override
-    public List<UserGame> getPurchaseHistory(Long userId) {
-        return userGameRepository.findByUserId(userId);
+    public List<UserGameDTO> getPurchaseHistory(Long userId, Pageable pageable) {
+        return userGameRepository.findHistoryByUserId(userId, pageable);
     }
 }
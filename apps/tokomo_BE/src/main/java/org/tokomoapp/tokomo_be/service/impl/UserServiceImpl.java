@@ -1,46 +1,68 @@
 package org.tokomoapp.tokomo_be.service.impl;
 
-import org.tokomoapp.tokomo_be.exception.InsufficientPointsException;
+import org.tokomoapp.tokomo_be.cache.EntitlementCache;
+import org.tokomoapp.tokomo_be.cache.PrincipalCache;
+import org.tokomoapp.tokomo_be.dto.CursorPage;
 import org.tokomoapp.tokomo_be.exception.InvalidVipCodeException;
+import org.tokomoapp.tokomo_be.exception.TooManyRequestsException;
 import org.tokomoapp.tokomo_be.exception.UserAlreadyExistsException;
-import org.tokomoapp.tokomo_be.model.PaymentCode;
 import org.tokomoapp.tokomo_be.model.User;
-import org.tokomoapp.tokomo_be.model.VipCode;
 import org.tokomoapp.tokomo_be.service.UserService;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
 import org.tokomoapp.tokomo_be.repository.PaymentCodeRepository;
 import org.tokomoapp.tokomo_be.repository.UserRepository;
 import org.tokomoapp.tokomo_be.repository.VipCodeRepository;
+import org.tokomoapp.tokomo_be.util.CursorUtil;
+import org.tokomoapp.tokomo_be.util.PasswordHasher;
+import org.tokomoapp.tokomo_be.util.TransactionUtil;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import org.tokomoapp.tokomo_be.dto.UserUpdateDTO;
 
 @Service
 public class UserServiceImpl implements UserService {
+    private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
+
     @Autowired
     private final UserRepository userRepository;
     private final PaymentCodeRepository paymentCodeRepository;
     private final VipCodeRepository vipCodeRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final PrincipalCache principalCache;
+    private final EntitlementCache entitlementCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository,
                          PaymentCodeRepository paymentCodeRepository,
                          VipCodeRepository vipCodeRepository,
-                         PasswordEncoder passwordEncoder) {
+                         PasswordHasher passwordHasher,
+                         PrincipalCache principalCache,
+                         EntitlementCache entitlementCache) {
         this.userRepository = userRepository;
         this.paymentCodeRepository = paymentCodeRepository;
         this.vipCodeRepository = vipCodeRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.principalCache = principalCache;
+        this.entitlementCache = entitlementCache;
     }
 
     @Override
@@ -55,8 +77,8 @@ public class UserServiceImpl implements UserService {
         userRepository.save(user);
     }
 
+    // 不开启事务：BCrypt 计算期间不占用数据库连接，用户名并发重复由唯一约束兜底
     @Override
-    @Transactional
     public User registerUser(String username, String password, String securityQuestion, String securityAnswer) {
 
         if (userRepository.findByUsername(username).isPresent()) {
@@ -65,25 +87,40 @@ public class UserServiceImpl implements UserService {
 
         User user = new User(
             username,
-            passwordEncoder.encode(password),
+            passwordHasher.encode(password),
             securityQuestion,
             securityAnswer
         );
         
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // 并发注册同一用户名时，后提交的一方违反唯一约束
+            throw new UserAlreadyExistsException("Username already exists");
+        }
     }
 
+    // 不开启事务：BCrypt 计算期间不占用数据库连接
     @Override
-    @Transactional
     public User authenticateUser(String username, String password) {
         try {
             User user = userRepository.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("用户名不存在"));
 
-            if (!passwordEncoder.matches(password, user.getHashedPassword())) {
+            if (!passwordHasher.matches(password, user.getHashedPassword())) {
                 throw new RuntimeException("密码错误");
             }
 
+            // 强度配置调高后，登录成功时按新强度重新保存哈希；繁忙时跳过，下次登录再处理
+            if (passwordHasher.needsRehash(user.getHashedPassword())) {
+                try {
+                    user.setHashedPassword(passwordHasher.encode(password));
+                    user = userRepository.save(user);
+                } catch (TooManyRequestsException e) {
+                    logger.warn("Skipped password rehash for user {}: {}", user.getId(), e.getMessage());
+                }
+            }
+
             return user;
         } catch (RuntimeException e) {
             // 直接抛出 RuntimeException，保留原始错误信息
@@ -97,65 +134,27 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public User redeemVipCode(Long userId, String code) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-            
-        VipCode vipCode = vipCodeRepository.findByCodeAndUsedFalse(code)
-            .orElseThrow(() -> new InvalidVipCodeException("Invalid or used VIP code"));
-            
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime newExpireDate;
-        
-        if (user.getVipExpireDate() == null || user.getVipExpireDate().isBefore(now)) {
-            newExpireDate = now.plusDays(vipCode.getValidDays());
-        } else {
-            newExpireDate = user.getVipExpireDate().plusDays(vipCode.getValidDays());
-        }
-        
-        user.setVipExpireDate(newExpireDate);
-        
-        // 标记兑换码为已使用
-        vipCode.setUsed(true);
-        vipCode.setUsedBy(userId);
-        vipCode.setUsedAt(now);
-        vipCodeRepository.save(vipCode);
-        
-        return userRepository.save(user);
+
+        // 先用条件更新占用兑换码，再在数据库内顺延会员时间，不需要先查询再保存
+        Integer validDays = vipCodeRepository.claim(code, userId, now)
+            .orElseThrow(() -> new InvalidVipCodeException("Invalid or used VIP code"));
+
+        // 用户不存在时抛出异常，事务回滚，兑换码恢复为未使用
+        User user = userRepository.extendVip(userId, validDays, now)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        TransactionUtil.afterCommit(() -> principalCache.invalidate(userId));
+        return user;
     }
 
     @Override
+    @Transactional
     public User redeemPaymentCode(Long userId, String code) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-
-        PaymentCode paymentCode = paymentCodeRepository.findByCodeAndUsedFalse(code)
+        Integer points = paymentCodeRepository.claim(code, userId, LocalDateTime.now())
             .orElseThrow(() -> new RuntimeException("Invalid payment code"));
 
-        LocalDateTime now = LocalDateTime.now();
-
-        user.setPoints(user.getPoints() + paymentCode.getPoints());
-        
-        // 标记兑换码为已使用
-        paymentCode.setUsed(true);
-        paymentCode.setUsedBy(userId);
-        paymentCode.setUsedAt(now);
-        paymentCodeRepository.save(paymentCode);
-        
-        return userRepository.save(user);
-    }
-
-        @Override
-    @Transactional
-    public User deductPoints(Long userId, Integer points) {
-        User user = userRepository.findById(userId)
+        return userRepository.addPoints(userId, points)
             .orElseThrow(() -> new RuntimeException("User not found"));
-            
-        if (user.getPoints() < points) {
-            throw new InsufficientPointsException("Insufficient points");
-        }
-        
-        user.setPoints(user.getPoints() - points);
-        return userRepository.save(user);
     }
 
     public Optional<User> findById(Long userId) {
@@ -178,7 +177,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException("Incorrect security answer");
         }
 
-        user.setHashedPassword(passwordEncoder.encode(newPassword));
+        user.setHashedPassword(passwordHasher.encode(newPassword));
         userRepository.save(user);
         return "Password reset successful";
     }
@@ -188,13 +187,32 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public CursorPage<User> getUsersPage(String cursor, int size) {
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(
+            CursorUtil.decode(cursor), PageRequest.of(0, size));
+        return CursorPage.of(users, size, User::getId);
+    }
+
+    @Override
+    @Transactional
+    public void streamAllUsers(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAllOrderById()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                // 逐行游离，避免持久化上下文随行数增长
+                entityManager.detach(user);
+            });
+        }
+    }
+
     @Override
     public User updateUser(Long id, UserUpdateDTO updates) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("User not found"));
             
         if (updates.getPassword() != null) {
-            user.setHashedPassword(passwordEncoder.encode(updates.getPassword()));
+            user.setHashedPassword(passwordHasher.encode(updates.getPassword()));
         }
         if (updates.getUsername() != null) user.setUsername(updates.getUsername());
         if (updates.getPoints() != null) user.setPoints(updates.getPoints());
@@ -202,7 +220,9 @@ public class UserServiceImpl implements UserService {
         if (updates.getIsAdmin() != null) user.setIsAdmin(updates.getIsAdmin());
         if (updates.getIsActive() != null) user.setIsActive(updates.getIsActive());
         
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        TransactionUtil.afterCommit(() -> principalCache.invalidate(id));
+        return saved;
     }
 
     @Override
@@ -211,6 +231,10 @@ public class UserServiceImpl implements UserService {
             .orElseThrow(() -> new RuntimeException("用户不存在"));
             
         userRepository.delete(user);
+        TransactionUtil.afterCommit(() -> {
+            principalCache.invalidate(id);
+            entitlementCache.invalidate(id);
+        });
         return user;
     }
 
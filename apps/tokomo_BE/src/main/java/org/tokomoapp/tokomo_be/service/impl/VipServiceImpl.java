@@ -2,13 +2,22 @@ package org.tokomoapp.tokomo_be.service.impl;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.tokomoapp.tokomo_be.dto.CursorPage;
 import org.tokomoapp.tokomo_be.model.VipCode;
 import org.tokomoapp.tokomo_be.repository.VipCodeRepository;
 import org.tokomoapp.tokomo_be.service.VipService;
 import org.tokomoapp.tokomo_be.util.CodeUtil;
+import org.tokomoapp.tokomo_be.util.CursorUtil;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
 import org.springframework.stereotype.Service;
@@ -18,20 +27,35 @@ public class VipServiceImpl implements VipService {
     @Autowired
     private VipCodeRepository vipCodeRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${code.generate.batch-size}")
+    private int generateBatchSize;
+
+    private static final String INSERT_CODE_SQL =
+        "INSERT INTO vip_codes (code, valid_days, used) VALUES (?, ?, false) ON CONFLICT (code) DO NOTHING";
+
     @Transactional
     public List<VipCode> generateVipCodes(int amount, int validDays) {
-        List<VipCode> codes = new ArrayList<>();
-        for (int i = 0; i < amount; i++) {
-            String code;
-            do {
-                code = CodeUtil.generateRandomCode();
-            } while (vipCodeRepository.existsByCode(code));
-            
+        List<String> inserted = CodeUtil.insertUniqueCodes(amount, generateBatchSize, batch -> {
+            List<Object[]> args = new ArrayList<>(batch.size());
+            for (String code : batch) {
+                args.add(new Object[] { code, validDays });
+            }
+            return jdbcTemplate.batchUpdate(INSERT_CODE_SQL, args);
+        });
+
+        List<VipCode> codes = new ArrayList<>(inserted.size());
+        for (String code : inserted) {
             VipCode vipCode = new VipCode();
             vipCode.setCode(code);
             vipCode.setValidDays(validDays);
             vipCode.setUsed(false);
-            codes.add(vipCodeRepository.save(vipCode));
+            codes.add(vipCode);
         }
         return codes;
     }
@@ -41,6 +65,24 @@ public class VipServiceImpl implements VipService {
         return vipCodeRepository.findAll();
     }
 
+    @Override
+    public CursorPage<VipCode> getVipCodesPage(String cursor, int size) {
+        List<VipCode> codes = vipCodeRepository.findByIdGreaterThanOrderByIdAsc(
+            CursorUtil.decode(cursor), PageRequest.of(0, size));
+        return CursorPage.of(codes, size, VipCode::getId);
+    }
+
+    @Override
+    @Transactional
+    public void streamAllVipCodes(Consumer<VipCode> consumer) {
+        try (Stream<VipCode> codes = vipCodeRepository.streamAllOrderById()) {
+            codes.forEach(code -> {
+                consumer.accept(code);
+                entityManager.detach(code);
+            });
+        }
+    }
+
     @Override
     @Transactional
     public VipCode updateVipCode(Long id, VipCode updates) {
@@ -74,4 +116,22 @@ public class VipServiceImpl implements VipService {
     public List<VipCode> saveVipCodes(List<VipCode> codes) {
         return vipCodeRepository.saveAll(codes);
     }
+
+    /**
+     * 删除全部VIP码并分批写入 codes，整个过程在同一个事务中完成。
+     * 每批写入后调用 onBatch，onBatch 或任何一批写入抛出异常时整体回滚，原有VIP码保持不变
+     */
+    @Override
+    @Transactional
+    public void replaceAllVipCodes(List<VipCode> codes, int batchSize, Consumer<List<VipCode>> onBatch) {
+        vipCodeRepository.deleteAllInBatch();
+        for (int start = 0; start < codes.size(); start += batchSize) {
+            List<VipCode> chunk = codes.subList(start, Math.min(start + batchSize, codes.size()));
+            vipCodeRepository.saveAll(chunk);
+            // 每批写出后清空持久化上下文，避免随行数增长
+            entityManager.flush();
+            entityManager.clear();
+            onBatch.accept(chunk);
+        }
+    }
 }
@@ -1,9 +1,42 @@
 package org.tokomoapp.tokomo_be.util;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 public class CodeUtil {
     public static String generateRandomCode() {
         return UUID.randomUUID().toString().replace("-","").toUpperCase();
     }
+
+    /**
+     * 批量生成并写入 amount 个不重复的兑换码，返回成功写入的码。
+     * 本次生成的码在内存中用 HashSet 去重；与库中已有码的冲突交给 code 唯一约束，
+     * insertBatch 对冲突的码返回更新计数 0，这些码会重新生成后在下一批写入。
+     */
+    public static List<String> insertUniqueCodes(int amount, int batchSize, Function<List<String>, int[]> insertBatch) {
+        Set<String> generated = new HashSet<>(amount * 2);
+        List<String> inserted = new ArrayList<>(amount);
+        while (inserted.size() < amount) {
+            int size = Math.min(batchSize, amount - inserted.size());
+            List<String> batch = new ArrayList<>(size);
+            while (batch.size() < size) {
+                String code = generateRandomCode();
+                if (generated.add(code)) {
+                    batch.add(code);
+                }
+            }
+
+            int[] counts = insertBatch.apply(batch);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    inserted.add(batch.get(i));
+                }
+            }
+        }
+        return inserted;
+    }
 }
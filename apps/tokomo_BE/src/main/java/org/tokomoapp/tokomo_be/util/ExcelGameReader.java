@@ -10,11 +10,28 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ExcelGameReader {
     
     private static final Logger logger = LoggerFactory.getLogger(ExcelGameReader.class);
     
+    /**
+     * 超过阈值的 .xlsx 使用流式读取，其余沿用 readGamesFromExcel
+     */
+    public static void readGamesFromExcel(String filePath, long streamingThreshold, Consumer<Game> consumer) throws Exception {
+        if (ExcelStreamingReader.shouldStream(filePath, streamingThreshold)) {
+            ExcelStreamingReader.readRows(filePath, 7, (rowNum, values) -> {
+                Game game = fromValues(values);
+                if (game != null) {
+                    consumer.accept(game);
+                }
+            });
+        } else {
+            readGamesFromExcel(filePath).forEach(consumer);
+        }
+    }
+
     public static List<Game> readGamesFromExcel(String filePath) throws Exception {
         List<Game> games = new ArrayList<>();
         
@@ -68,6 +85,38 @@ public class ExcelGameReader {
         return games;
     }
     
+    private static Game fromValues(String[] values) {
+        // 检查行是否为空
+        boolean isEmptyRow = true;
+        for (int j = 0; j < 6; j++) {
+            if (value(values, j) != null) {
+                isEmptyRow = false;
+                break;
+            }
+        }
+        if (isEmptyRow) return null;
+
+        Game game = new Game();
+        game.setId(Long.parseLong(value(values, 0)));
+        game.setGameType(value(values, 1));
+        game.setGameName(value(values, 2));
+        game.setDownloadUrl(value(values, 3));
+        game.setPassword(value(values, 4));
+        game.setExtractPassword(value(values, 5));
+        game.setNote(value(values, 6));
+        if(game.getGameName() == null || game.getDownloadUrl() == null) {
+            logger.error("Download URL or Game Name is null for game: " + game.getGameName());
+            return null;
+        }
+        return game;
+    }
+
+    private static String value(String[] values, int index) {
+        if (index >= values.length || values[index] == null) return null;
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+    
     private static String getStringValue(Cell cell) {
         if (cell == null) return null;
         
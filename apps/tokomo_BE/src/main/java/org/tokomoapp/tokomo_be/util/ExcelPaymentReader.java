@@ -11,11 +11,28 @@ import java.io.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ExcelPaymentReader {
     
     private static final Logger logger = LoggerFactory.getLogger(ExcelPaymentReader.class);
     
+    /**
+     * 超过阈值的 .xlsx 使用流式读取，其余沿用 readPaymentCodesFromExcel
+     */
+    public static void readPaymentCodesFromExcel(String filePath, long streamingThreshold, Consumer<PaymentCode> consumer) throws Exception {
+        if (ExcelStreamingReader.shouldStream(filePath, streamingThreshold)) {
+            ExcelStreamingReader.readRows(filePath, 5, (rowNum, values) -> {
+                PaymentCode paymentCode = fromValues(values, String.valueOf(rowNum));
+                if (paymentCode != null) {
+                    consumer.accept(paymentCode);
+                }
+            });
+        } else {
+            readPaymentCodesFromExcel(filePath).forEach(consumer);
+        }
+    }
+
     public static List<PaymentCode> readPaymentCodesFromExcel(String filePath) throws Exception {
         if (filePath.endsWith(".csv")) {
             return readFromCsv(filePath);
@@ -43,44 +60,10 @@ public class ExcelPaymentReader {
                     continue;
                 }
                 
-                String code = values[0].trim();
-                Integer points = null;
-                try {
-                    points = Integer.parseInt(values[1].trim());
-                } catch (NumberFormatException e) {
-                    logger.warn("跳过无效行（点数格式错误）: " + line);
-                    continue;
-                }
-                
-                PaymentCode paymentCode = new PaymentCode();
-                paymentCode.setCode(code);
-                paymentCode.setPoints(points);
-                
-                // 读取状态
-                if (values.length > 2) {
-                    paymentCode.setUsed("已使用".equals(values[2].trim()));
-                }
-                
-                // 读取使用者ID
-                if (values.length > 3 && !values[3].trim().isEmpty()) {
-                    try {
-                        paymentCode.setUsedBy(Long.parseLong(values[3].trim()));
-                    } catch (NumberFormatException e) {
-                        logger.warn("使用者ID格式错误: " + values[3]);
-                    }
+                PaymentCode paymentCode = fromValues(values, line);
+                if (paymentCode != null) {
+                    codes.add(paymentCode);
                 }
-                
-                // 读取使用时间
-                if (values.length > 4 && !values[4].trim().isEmpty()) {
-                    LocalDateTime usedAt = parseDateString(values[4].trim());
-                    if (usedAt != null) {
-                        paymentCode.setUsedAt(usedAt);
-                    } else {
-                        logger.warn("使用时间格式错误: " + values[4]);
-                    }
-                }
-                
-                codes.add(paymentCode);
             }
         }
         
@@ -155,6 +138,62 @@ public class ExcelPaymentReader {
         return codes;
     }
     
+    // CSV 与流式读取共用的按列解析
+    private static PaymentCode fromValues(String[] values, String row) {
+        String code = value(values, 0);
+        String pointsStr = value(values, 1);
+        if (code == null || pointsStr == null) {
+            logger.warn("跳过无效行: " + row);
+            return null;
+        }
+
+        Integer points;
+        try {
+            points = Integer.parseInt(pointsStr);
+        } catch (NumberFormatException e) {
+            logger.warn("跳过无效行（点数格式错误）: " + row);
+            return null;
+        }
+
+        PaymentCode paymentCode = new PaymentCode();
+        paymentCode.setCode(code);
+        paymentCode.setPoints(points);
+
+        // 读取状态
+        String status = value(values, 2);
+        if (status != null) {
+            paymentCode.setUsed("已使用".equals(status));
+        }
+
+        // 读取使用者ID
+        String usedByStr = value(values, 3);
+        if (usedByStr != null) {
+            try {
+                paymentCode.setUsedBy(Long.parseLong(usedByStr));
+            } catch (NumberFormatException e) {
+                logger.warn("使用者ID格式错误: " + usedByStr);
+            }
+        }
+
+        // 读取使用时间
+        String dateStr = value(values, 4);
+        if (dateStr != null) {
+            LocalDateTime usedAt = parseDateString(dateStr);
+            if (usedAt != null) {
+                paymentCode.setUsedAt(usedAt);
+            } else {
+                logger.warn("使用时间格式错误: " + dateStr);
+            }
+        }
+        return paymentCode;
+    }
+
+    private static String value(String[] values, int index) {
+        if (index >= values.length || values[index] == null) return null;
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+    
     private static LocalDateTime parseDateString(String dateStr) {
         try {
             String[] parts = dateStr.split(" ");
@@ -0,0 +1,105 @@
+package org.tokomoapp.tokomo_be.util;
+
+import java.io.File;
+import java.io.InputStream;
+import java.time.format.DateTimeFormatter;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+/**
+ * 基于 SAX 事件的 .xlsx 读取，逐行回调，内存占用与文件大小无关。
+ * 只读取第一个工作表，跳过标题行，单元格内容为 DataFormatter 格式化后的文本；
+ * 日期单元格不按工作簿中的显示格式（如 "1/15/24 10:30"），统一输出为 "yyyy-MM-dd HH:mm:ss"。
+ */
+public class ExcelStreamingReader {
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public interface RowHandler {
+        void handle(int rowNum, String[] values);
+    }
+
+    /**
+     * 大于阈值的 .xlsx 文件使用流式读取
+     */
+    public static boolean shouldStream(String filePath, long thresholdBytes) {
+        return filePath.endsWith(".xlsx") && new File(filePath).length() > thresholdBytes;
+    }
+
+    public static void readRows(String filePath, int columns, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(new File(filePath), PackageAccess.READ)) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader reader = new XSSFReader(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    styles, strings, new RowCollector(columns, handler), new IsoDateFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    private static class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).format(DATE_TIME_FORMAT);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+
+    private static class RowCollector implements SheetContentsHandler {
+        private final int columns;
+        private final RowHandler handler;
+        private String[] values;
+        private int nextColumn;
+
+        RowCollector(int columns, RowHandler handler) {
+            this.columns = columns;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            values = new String[columns];
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // 跳过标题行
+            if (rowNum > 0) {
+                handler.handle(rowNum, values);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = col + 1;
+            if (col < columns) {
+                values[col] = formattedValue;
+            }
+        }
+    }
+}
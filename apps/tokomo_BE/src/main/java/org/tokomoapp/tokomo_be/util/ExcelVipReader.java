@@ -11,11 +11,28 @@ import java.io.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ExcelVipReader {
     
     private static final Logger logger = LoggerFactory.getLogger(ExcelVipReader.class);
     
+    /**
+     * 超过阈值的 .xlsx 使用流式读取，其余沿用 readVipCodesFromExcel
+     */
+    public static void readVipCodesFromExcel(String filePath, long streamingThreshold, Consumer<VipCode> consumer) throws Exception {
+        if (ExcelStreamingReader.shouldStream(filePath, streamingThreshold)) {
+            ExcelStreamingReader.readRows(filePath, 5, (rowNum, values) -> {
+                VipCode vipCode = fromValues(values, String.valueOf(rowNum));
+                if (vipCode != null) {
+                    consumer.accept(vipCode);
+                }
+            });
+        } else {
+            readVipCodesFromExcel(filePath).forEach(consumer);
+        }
+    }
+
     public static List<VipCode> readVipCodesFromExcel(String filePath) throws Exception {
         if (filePath.endsWith(".csv")) {
             return readFromCsv(filePath);
@@ -43,44 +60,10 @@ public class ExcelVipReader {
                     continue;
                 }
                 
-                String code = values[0].trim();
-                Integer validDays = null;
-                try {
-                    validDays = Integer.parseInt(values[1].trim());
-                } catch (NumberFormatException e) {
-                    logger.warn("跳过无效行（天数格式错误）: " + line);
-                    continue;
-                }
-                
-                VipCode vipCode = new VipCode();
-                vipCode.setCode(code);
-                vipCode.setValidDays(validDays);
-                
-                // 读取状态
-                if (values.length > 2) {
-                    vipCode.setUsed("已使用".equals(values[2].trim()));
-                }
-                
-                // 读取使用者ID
-                if (values.length > 3 && !values[3].trim().isEmpty()) {
-                    try {
-                        vipCode.setUsedBy(Long.parseLong(values[3].trim()));
-                    } catch (NumberFormatException e) {
-                        logger.warn("使用者ID格式错误: " + values[3]);
-                    }
+                VipCode vipCode = fromValues(values, line);
+                if (vipCode != null) {
+                    codes.add(vipCode);
                 }
-                
-                // 读取使用时间
-                if (values.length > 4 && !values[4].trim().isEmpty()) {
-                    LocalDateTime usedAt = parseDateString(values[4].trim());
-                    if (usedAt != null) {
-                        vipCode.setUsedAt(usedAt);
-                    } else {
-                        logger.warn("使用时间格式错误: " + values[4]);
-                    }
-                }
-                
-                codes.add(vipCode);
             }
         }
         
@@ -162,6 +145,62 @@ public class ExcelVipReader {
         return codes;
     }
     
+    // CSV 与流式读取共用的按列解析
+    private static VipCode fromValues(String[] values, String row) {
+        String code = value(values, 0);
+        String validDaysStr = value(values, 1);
+        if (code == null || validDaysStr == null) {
+            logger.warn("跳过无效行: " + row);
+            return null;
+        }
+
+        Integer validDays;
+        try {
+            validDays = Integer.parseInt(validDaysStr);
+        } catch (NumberFormatException e) {
+            logger.warn("跳过无效行（天数格式错误）: " + row);
+            return null;
+        }
+
+        VipCode vipCode = new VipCode();
+        vipCode.setCode(code);
+        vipCode.setValidDays(validDays);
+
+        // 读取状态
+        String status = value(values, 2);
+        if (status != null) {
+            vipCode.setUsed("已使用".equals(status));
+        }
+
+        // 读取使用者ID
+        String usedByStr = value(values, 3);
+        if (usedByStr != null) {
+            try {
+                vipCode.setUsedBy(Long.parseLong(usedByStr));
+            } catch (NumberFormatException e) {
+                logger.warn("使用者ID格式错误: " + usedByStr);
+            }
+        }
+
+        // 读取使用时间
+        String dateStr = value(values, 4);
+        if (dateStr != null) {
+            LocalDateTime usedAt = parseDateString(dateStr);
+            if (usedAt != null) {
+                vipCode.setUsedAt(usedAt);
+            } else {
+                logger.warn("使用时间格式错误: " + dateStr);
+            }
+        }
+        return vipCode;
+    }
+
+    private static String value(String[] values, int index) {
+        if (index >= values.length || values[index] == null) return null;
+        String value = values[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+    
     private static LocalDateTime parseDateString(String dateStr) {
         try {
             String[] parts = dateStr.split(" ");
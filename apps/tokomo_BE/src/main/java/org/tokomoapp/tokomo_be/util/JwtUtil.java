@@ -1,6 +1,11 @@
 package org.tokomoapp.tokomo_be.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -8,9 +13,14 @@ import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import javax.crypto.SecretKey;
 
@@ -28,10 +38,44 @@ public class JwtUtil {
 
     @Value("${jwt.expiration}")
     private Long EXPIRATION_TIME;
+
+    @Value("${jwt.verified-cache.max-size}")
+    private int verifiedCacheSize;
+
+    // JwtParser 不可变且线程安全，全局复用一个
+    private JwtParser parser;
+    // 验证通过的 token 的 SHA-256 摘要 -> 用户 id，命中时跳过签名校验；条目在 token 过期时自动失效。
+    // 不以原始 token 为键，堆转储中不会留下可直接使用的凭证
+    private Cache<String, VerifiedToken> verifiedTokens;
     
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        this.parser = Jwts.parserBuilder()
+            .setSigningKey(key)
+            .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheSize)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String digest, VerifiedToken verified, long currentTime) {
+                    long remaining = verified.expiresAt - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+                }
+
+                @Override
+                public long expireAfterUpdate(String digest, VerifiedToken verified, long currentTime,
+                                              long currentDuration) {
+                    return expireAfterCreate(digest, verified, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String digest, VerifiedToken verified, long currentTime,
+                                            long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
     }
     
     public String generateToken(User user) {
@@ -47,29 +91,74 @@ public class JwtUtil {
             .compact();
     }
     
-    public boolean validateToken(String token) {
+    /**
+     * 验证签名与有效期并返回 token 中的用户 id，token 无效时返回 null。
+     * 每个 token 只在第一次出现时做一次签名校验，缓存中只保存不可变的用户 id 与过期时间，
+     * 不在线程间共享 Claims 对象。
+     */
+    public Long parseUserId(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+            return cached.userId;
+        }
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Long userId = extractUserId(claims);
+            // 没有过期时间的 token 不缓存，每次都重新校验
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, new VerifiedToken(userId, claims.getExpiration().getTime()));
+            }
+            return userId;
         } catch (Exception e) {
             logger.error("Error validating token: {}", e.getMessage());
-            return false;
+            return null;
         }
     }
+
+    public boolean validateToken(String token) {
+        return parseUserId(token) != null;
+    }
     
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
+        Long userId = parseUserId(token);
+        if (userId == null) {
+            return extractUserId(extractAllClaims(token));
+        }
+        return userId;
+    }
+
+    private Long extractUserId(Claims claims) {
         return ((Number) claims.get("userId")).longValue();
     }
-    
+
+    private static String digest(String token) {
+        try {
+            // MessageDigest 不是线程安全的，每次调用新建一个
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            // 所有 JDK 都必须提供 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int getVerifiedCacheSize() {
+        return (int) verifiedTokens.estimatedSize();
+    }
+
+    // 每次调用都重新解析，返回的 Claims 归调用方独占
     protected Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(key)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static final class VerifiedToken {
+        private final Long userId;
+        private final long expiresAt;
+
+        VerifiedToken(Long userId, long expiresAt) {
+            this.userId = userId;
+            this.expiresAt = expiresAt;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package org.tokomoapp.tokomo_be.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 内存索引与缓存的更新需在事务提交后执行，回滚的写入不会留在内存中
+ */
+public class TransactionUtil {
+
+    /**
+     * 当前线程有活动事务时在提交后执行 action，回滚则不执行；没有事务时立即执行
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 当前线程有活动事务时在事务结束后执行 action，提交或回滚都会执行；没有事务时立即执行。
+     * 用于与本事务结果无关、但不应在事务内修改的内存状态
+     */
+    public static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+-- 基线结构：与 ddl-auto=update 生成的表结构一致
+-- 已有数据库由 spring.flyway.baseline-on-migrate 标记为版本 1，不会执行本脚本
+
+CREATE TABLE IF NOT EXISTS users (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username          varchar(255) NOT NULL UNIQUE,
+    hashed_password   varchar(255) NOT NULL,
+    security_question varchar(255) NOT NULL,
+    security_answer   varchar(255) NOT NULL,
+    points            integer,
+    vip_expire_date   timestamp(6),
+    is_admin          boolean,
+    created_at        timestamp(6),
+    last_login_at     timestamp(6),
+    is_active         boolean
+);
+
+CREATE TABLE IF NOT EXISTS games (
+    id               bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    game_type        varchar(255),
+    game_name        varchar(255) NOT NULL UNIQUE,
+    download_url     varchar(255) NOT NULL,
+    password         varchar(255),
+    extract_password varchar(255),
+    note             varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS user_games (
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id       bigint NOT NULL REFERENCES users (id),
+    game_id       bigint NOT NULL REFERENCES games (id),
+    purchase_date timestamp(6) NOT NULL,
+    CONSTRAINT uk_user_games_user_game UNIQUE (user_id, game_id)
+);
+
+CREATE TABLE IF NOT EXISTS payment_codes (
+    id      bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code    varchar(255) NOT NULL UNIQUE,
+    points  integer NOT NULL,
+    used    boolean NOT NULL,
+    used_by bigint,
+    used_at timestamp(6)
+);
+
+CREATE TABLE IF NOT EXISTS vip_codes (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code        varchar(255) NOT NULL UNIQUE,
+    valid_days  integer NOT NULL,
+    used        boolean NOT NULL,
+    used_by     bigint,
+    used_at     timestamp(6)
+);
@@ -0,0 +1,30 @@
+-- 热点查询索引与约束
+
+-- 旧库由 ddl-auto=update 建表，可能缺少 (user_id, game_id) 唯一约束；
+-- 先清理并发购买留下的重复记录（保留最早一条），再补建约束
+DELETE FROM user_games a
+    USING user_games b
+    WHERE a.user_id = b.user_id
+      AND a.game_id = b.game_id
+      AND a.id > b.id;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_user_games_user_game') THEN
+        ALTER TABLE user_games
+            ADD CONSTRAINT uk_user_games_user_game UNIQUE (user_id, game_id);
+    END IF;
+END
+$$;
+
+-- 唯一约束的 (user_id, game_id) 索引同时覆盖 findByUserId / existsByUserIdAndGameId，
+-- 单独的 user_id 索引只会增加写入开销，不再重复建立
+-- existsByGameId（删除游戏前的检查）与外键级联查询按 game_id 过滤
+CREATE INDEX IF NOT EXISTS idx_user_games_game_id ON user_games (game_id);
+
+-- findByUsedByOrderByUsedAtDesc：按使用者过滤并按使用时间倒序
+CREATE INDEX IF NOT EXISTS idx_payment_codes_used_by_used_at ON payment_codes (used_by, used_at DESC);
+
+-- 游戏名模糊搜索（lower(game_name) LIKE '%keyword%'）使用三元组索引
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_games_game_name_trgm ON games USING gin (lower(game_name) gin_trgm_ops);
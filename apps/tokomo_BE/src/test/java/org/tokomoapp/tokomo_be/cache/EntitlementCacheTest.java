@@ -0,0 +1,107 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EntitlementCacheTest {
+
+    private EntitlementCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EntitlementCache();
+        ReflectionTestUtils.setField(cache, "idleMillis", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxUsers", 100);
+        cache.init();
+    }
+
+    @Test
+    void loadsOnceThenServesFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        assertTrue(cache.owns(1L, 10L, userId -> {
+            loads.incrementAndGet();
+            return List.of(30L, 10L, 20L);
+        }));
+        assertFalse(cache.owns(1L, 40L, userId -> {
+            loads.incrementAndGet();
+            return List.of();
+        }));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void addUpdatesLoadedUser() {
+        cache.owns(1L, 10L, userId -> List.of(10L));
+        cache.add(1L, 5L);
+        assertTrue(cache.owns(1L, 5L, userId -> List.of()));
+        assertTrue(cache.owns(1L, 10L, userId -> List.of()));
+    }
+
+    @Test
+    void addDuringLoadDiscardsStaleResult() {
+        // 加载读到购买提交前的数据，随后购买提交并调用 add
+        assertFalse(cache.owns(1L, 10L, userId -> {
+            cache.add(1L, 10L);
+            return List.of();
+        }));
+        assertEquals(0, cache.size());
+
+        AtomicInteger loads = new AtomicInteger();
+        assertTrue(cache.owns(1L, 10L, userId -> {
+            loads.incrementAndGet();
+            return List.of(10L);
+        }));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidateDuringLoadDiscardsStaleResult() {
+        cache.owns(1L, 10L, userId -> {
+            cache.invalidate(1L);
+            return List.of(10L);
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void otherUsersAreCachedWhileOneIsWritten() {
+        cache.owns(2L, 10L, userId -> {
+            cache.add(1L, 10L);
+            return List.of(10L);
+        });
+        // 不同分段的写入不影响加载结果入缓存
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void idleUserIsReloaded() throws InterruptedException {
+        EntitlementCache shortLived = new EntitlementCache();
+        ReflectionTestUtils.setField(shortLived, "idleMillis", 50L);
+        ReflectionTestUtils.setField(shortLived, "maxUsers", 100);
+        shortLived.init();
+
+        AtomicInteger loads = new AtomicInteger();
+        shortLived.owns(1L, 10L, userId -> {
+            loads.incrementAndGet();
+            return List.of(10L);
+        });
+        Thread.sleep(100L);
+        shortLived.owns(1L, 10L, userId -> {
+            loads.incrementAndGet();
+            return List.of(10L);
+        });
+        assertEquals(2, loads.get());
+        assertEquals(0, shortLived.getHitCount());
+    }
+}
@@ -0,0 +1,134 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.tokomoapp.tokomo_be.model.Game;
+
+class GameCatalogTest {
+
+    private GameCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new GameCatalog();
+    }
+
+    @Test
+    void updatesBeforeFirstLoadAreIgnored() {
+        catalog.upsert(List.of(game(1L, "Halo")));
+        catalog.remove(List.of(1L));
+        assertFalse(catalog.isReady());
+        assertEquals(0, catalog.size());
+
+        catalog.replace(List.of());
+        assertTrue(catalog.isReady());
+        assertEquals(0, catalog.size());
+    }
+
+    @Test
+    void replaceSortsByIdAndIndexesNames() {
+        catalog.replace(List.of(game(30L, "Portal"), game(10L, "Halo"), game(20L, "Celeste")));
+
+        assertEquals(List.of(10L, 20L, 30L), ids(catalog.findAll()));
+        assertEquals("Celeste", catalog.findById(20L).orElseThrow().getGameName());
+        assertEquals(30L, catalog.findByName("Portal").orElseThrow().getId());
+        assertTrue(catalog.findById(40L).isEmpty());
+        assertTrue(catalog.findById(null).isEmpty());
+        assertTrue(catalog.findByName("Doom").isEmpty());
+    }
+
+    @Test
+    void mergeInsertsUpdatesAndRemoves() {
+        catalog.replace(List.of(game(10L, "Halo"), game(20L, "Celeste"), game(30L, "Portal")));
+
+        catalog.upsert(List.of(game(25L, "Hades"), game(20L, "Celeste DX"), game(5L, "Doom"), game(40L, "Zelda")));
+        assertEquals(List.of(5L, 10L, 20L, 25L, 30L, 40L), ids(catalog.findAll()));
+        assertEquals("Celeste DX", catalog.findById(20L).orElseThrow().getGameName());
+        assertTrue(catalog.findByName("Celeste").isEmpty());
+
+        catalog.remove(List.of(5L, 30L, 99L));
+        assertEquals(List.of(10L, 20L, 25L, 40L), ids(catalog.findAll()));
+        assertTrue(catalog.findByName("Portal").isEmpty());
+        assertEquals(4, catalog.size());
+    }
+
+    @Test
+    void returnedGamesAreCopies() {
+        catalog.replace(List.of(game(1L, "Halo")));
+        catalog.findById(1L).orElseThrow().setGameName("Changed");
+        assertEquals("Halo", catalog.findById(1L).orElseThrow().getGameName());
+    }
+
+    @Test
+    void findSanitizedKeepsOrderAndSkipsMissingIds() {
+        catalog.replace(List.of(game(1L, "Halo"), game(2L, "Celeste"), game(3L, "Portal")));
+
+        List<Game> page = catalog.findSanitized(new long[] {3, 9, 1, 2}, 0, 3);
+        assertEquals(List.of(3L, 1L), ids(page));
+        assertEquals("Portal", page.get(0).getGameName());
+        assertEquals("type", page.get(0).getGameType());
+        assertNull(page.get(0).getDownloadUrl());
+        assertNull(page.get(0).getPassword());
+
+        assertEquals(List.of(1L, 2L), ids(catalog.findSanitized(new long[] {3, 1, 2}, 1, Integer.MAX_VALUE)));
+        assertTrue(catalog.findSanitized(new long[] {3, 1, 2}, 5, 10).isEmpty());
+    }
+
+    @Test
+    void mergeMatchesFullReplace() {
+        Random random = new Random(7);
+        TreeMap<Long, Game> expected = new TreeMap<>();
+        catalog.replace(List.of());
+
+        for (int step = 0; step < 200; step++) {
+            List<Game> upserts = new ArrayList<>();
+            List<Long> removed = new ArrayList<>();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                long id = random.nextInt(100);
+                if (random.nextInt(3) == 0) {
+                    removed.add(id);
+                } else {
+                    upserts.add(game(id, "game " + id + " v" + step));
+                }
+            }
+            catalog.upsert(upserts);
+            upserts.forEach(game -> expected.put(game.getId(), game));
+            catalog.remove(removed);
+            removed.forEach(expected::remove);
+
+            assertEquals(new ArrayList<>(expected.keySet()), ids(catalog.findAll()));
+            for (Game game : expected.values()) {
+                assertEquals(game.getGameName(), catalog.findById(game.getId()).orElseThrow().getGameName());
+                assertEquals(game.getId(), catalog.findByName(game.getGameName()).orElseThrow().getId());
+            }
+        }
+    }
+
+    private static Game game(Long id, String name) {
+        Game game = new Game();
+        game.setId(id);
+        game.setGameName(name);
+        game.setGameType("type");
+        game.setDownloadUrl("https://example.com/" + id);
+        game.setPassword("secret");
+        return game;
+    }
+
+    private static List<Long> ids(List<Game> games) {
+        List<Long> ids = new ArrayList<>();
+        for (Game game : games) {
+            ids.add(game.getId());
+        }
+        return ids;
+    }
+}
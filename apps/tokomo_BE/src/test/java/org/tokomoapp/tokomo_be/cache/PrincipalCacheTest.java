@@ -0,0 +1,87 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tokomoapp.tokomo_be.cache.PrincipalCache.CachedPrincipal;
+import org.tokomoapp.tokomo_be.model.User;
+
+class PrincipalCacheTest {
+
+    private PrincipalCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = principalCache(60_000L);
+    }
+
+    @Test
+    void repeatedLookupsAreServedFromCache() {
+        CachedPrincipal first = cache.get(1L, this::load);
+        CachedPrincipal second = cache.get(1L, this::load);
+
+        assertEquals("user-1", second.getUsername());
+        assertTrue(second.isAdmin());
+        assertTrue(second.isVIP());
+        assertEquals(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.stats().loadSuccessCount());
+    }
+
+    @Test
+    void invalidatedEntryIsReloaded() {
+        cache.get(1L, this::load);
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void entryIsReloadedAfterTtl() throws InterruptedException {
+        PrincipalCache shortLived = principalCache(50L);
+        shortLived.get(1L, this::load);
+        Thread.sleep(100L);
+        shortLived.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(0, shortLived.getHitCount());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(RuntimeException.class, () -> cache.get(2L, id -> {
+            throw new RuntimeException("User not found");
+        }));
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.stats().loadFailureCount());
+    }
+
+    private User load(Long id) {
+        loads.incrementAndGet();
+        User user = new User("user-" + id, "hash", "question", "answer");
+        user.setId(id);
+        user.setIsAdmin(true);
+        user.setVipExpireDate(LocalDateTime.now().plusDays(1));
+        return user;
+    }
+
+    private static PrincipalCache principalCache(long ttlMillis) {
+        PrincipalCache cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "ttlMillis", ttlMillis);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        cache.init();
+        return cache;
+    }
+}
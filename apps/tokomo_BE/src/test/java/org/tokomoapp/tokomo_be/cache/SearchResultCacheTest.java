@@ -0,0 +1,88 @@
+package org.tokomoapp.tokomo_be.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+
+class SearchResultCacheTest {
+
+    private SearchResultCache cache;
+    private GameSearchIndex index;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache();
+        ReflectionTestUtils.setField(cache, "maxIds", 3L);
+        cache.init();
+        index = new GameSearchIndex();
+        index.rebuild(List.of(game(1L, "Halo"), game(2L, "Halo Wars")));
+    }
+
+    @Test
+    void sameVersionIsServedFromCache() {
+        assertArrayEquals(new long[] {1L, 2L}, search("halo"));
+        assertArrayEquals(new long[] {1L, 2L}, search("halo"));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void indexWriteBumpsVersionAndInvalidates() {
+        search("halo");
+        long before = index.getVersion();
+
+        index.put(game(3L, "Halo Infinite"));
+        assertEquals(before + 1, index.getVersion());
+        assertArrayEquals(new long[] {1L, 2L, 3L}, search("halo"));
+
+        index.remove(2L);
+        assertArrayEquals(new long[] {1L, 3L}, search("halo"));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void keysAreNormalized() {
+        search(SearchResultCache.normalize("  HALO "));
+        search(SearchResultCache.normalize("halo"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void capacityIsBoundedByTotalIdCount() throws InterruptedException {
+        // "halo" 两个 id 权重为 3，已占满容量；再放入任何条目都要淘汰一个
+        search("halo");
+        search("wars");
+
+        for (int i = 0; i < 100 && cache.getEvictionCount() == 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.size());
+    }
+
+    private long[] search(String keyword) {
+        return cache.get(keyword, index.getVersion(), key -> {
+            loads.incrementAndGet();
+            return index.searchIds(key);
+        });
+    }
+
+    private static Game game(Long id, String name) {
+        Game game = new Game();
+        game.setId(id);
+        game.setGameName(name);
+        return game;
+    }
+}
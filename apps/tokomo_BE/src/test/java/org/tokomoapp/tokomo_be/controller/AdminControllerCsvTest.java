@@ -0,0 +1,90 @@
+package org.tokomoapp.tokomo_be.controller;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.tokomoapp.tokomo_be.exception.GlobalExceptionHandler;
+import org.tokomoapp.tokomo_be.model.PaymentCode;
+import org.tokomoapp.tokomo_be.model.VipCode;
+import org.tokomoapp.tokomo_be.service.GameService;
+import org.tokomoapp.tokomo_be.service.PaymentService;
+import org.tokomoapp.tokomo_be.service.UserService;
+import org.tokomoapp.tokomo_be.service.VipService;
+
+class AdminControllerCsvTest {
+
+    private VipService vipService;
+    private PaymentService paymentService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        vipService = mock(VipService.class);
+        paymentService = mock(PaymentService.class);
+        AdminController controller = new AdminController(mock(GameService.class), mock(UserService.class));
+        ReflectionTestUtils.setField(controller, "vipService", vipService);
+        ReflectionTestUtils.setField(controller, "paymentService", paymentService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+    }
+
+    @Test
+    void vipCodesAreStreamedAsCsv() throws Exception {
+        VipCode code = new VipCode();
+        code.setCode("VIP-1");
+        code.setValidDays(30);
+        when(vipService.generateVipCodes(2, 30)).thenReturn(List.of(code, code));
+
+        MvcResult result = mockMvc.perform(post("/api/admin/vip/genVip").param("format", "csv")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":2}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"vip-codes.csv\""))
+            .andExpect(content().string("code,validDays\nVIP-1,30\nVIP-1,30\n"));
+    }
+
+    @Test
+    void paymentCodesAreStreamedAsCsv() throws Exception {
+        PaymentCode code = new PaymentCode();
+        code.setCode("PAY-1");
+        code.setPoints(100);
+        when(paymentService.generatePaymentCodes(1, 100)).thenReturn(List.of(code));
+
+        MvcResult result = mockMvc.perform(post("/api/admin/payment/genPay").param("format", "csv")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"points\":100}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string("code,points\nPAY-1,100\n"));
+    }
+
+    @Test
+    void invalidCsvRequestIsRejected() throws Exception {
+        mockMvc.perform(post("/api/admin/payment/genPay").param("format", "csv")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"points\":0}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.status").value("error"));
+        verifyNoInteractions(paymentService);
+    }
+}
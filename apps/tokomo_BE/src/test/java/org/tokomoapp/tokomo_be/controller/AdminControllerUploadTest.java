@@ -0,0 +1,104 @@
+package org.tokomoapp.tokomo_be.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.tokomoapp.tokomo_be.model.ImportJob;
+import org.tokomoapp.tokomo_be.model.VipCode;
+import org.tokomoapp.tokomo_be.service.GameService;
+import org.tokomoapp.tokomo_be.service.ImportJobService;
+import org.tokomoapp.tokomo_be.service.UserService;
+import org.tokomoapp.tokomo_be.service.VipService;
+
+class AdminControllerUploadTest {
+
+    private VipService vipService;
+    private ImportJobService importJobService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        vipService = mock(VipService.class);
+        importJobService = mock(ImportJobService.class);
+        AdminController controller = new AdminController(mock(GameService.class), mock(UserService.class));
+        ReflectionTestUtils.setField(controller, "vipService", vipService);
+        ReflectionTestUtils.setField(controller, "importJobService", importJobService);
+        ReflectionTestUtils.setField(controller, "streamingThreshold", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(controller, "importBatchSize", 1000);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void uploadRunsAsJobByDefault() throws Exception {
+        ImportJob job = new ImportJob("vip");
+        when(importJobService.submitVipImport(anyString())).thenReturn(job);
+
+        mockMvc.perform(multipart("/api/admin/vip/set").file(vipFile()))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.data.jobId").value(job.getId()));
+
+        ArgumentCaptor<String> path = ArgumentCaptor.forClass(String.class);
+        verify(importJobService).submitVipImport(path.capture());
+        Files.deleteIfExists(Path.of(path.getValue()));
+        verify(vipService, never()).replaceAllVipCodes(any(), anyInt(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void synchronousUploadReplacesCodesAtomically() throws Exception {
+        mockMvc.perform(multipart("/api/admin/vip/set").file(vipFile()).param("async", "false"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].code").value("VIP-A"));
+
+        ArgumentCaptor<List<VipCode>> codes = ArgumentCaptor.forClass(List.class);
+        verify(vipService).replaceAllVipCodes(codes.capture(), eq(1000), any());
+        assertEquals(2, codes.getValue().size());
+        verify(vipService, never()).deleteAllVipCodes();
+        verify(vipService, never()).saveVipCodes(any());
+        Files.deleteIfExists(Path.of(System.getProperty("java.io.tmpdir"), "vip-upload-test.xlsx"));
+    }
+
+    private static MockMultipartFile vipFile() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("code");
+            header.createCell(1).setCellValue("validDays");
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("VIP-A");
+            first.createCell(1).setCellValue(30);
+            Row second = sheet.createRow(2);
+            second.createCell(0).setCellValue("VIP-B");
+            second.createCell(1).setCellValue(7);
+            workbook.write(out);
+            return new MockMultipartFile("file", "vip-upload-test.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", out.toByteArray());
+        }
+    }
+}
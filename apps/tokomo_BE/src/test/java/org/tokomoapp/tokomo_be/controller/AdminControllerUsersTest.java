@@ -0,0 +1,94 @@
+package org.tokomoapp.tokomo_be.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.tokomoapp.tokomo_be.dto.CursorPage;
+import org.tokomoapp.tokomo_be.model.User;
+import org.tokomoapp.tokomo_be.service.GameService;
+import org.tokomoapp.tokomo_be.service.UserService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class AdminControllerUsersTest {
+
+    private UserService userService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        AdminController controller = new AdminController(mock(GameService.class), userService);
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(controller, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(controller, "maxPageSize", 500);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void listModeSanitizesUsers() throws Exception {
+        when(userService.getAllUsers()).thenReturn(List.of(user()));
+
+        mockMvc.perform(get("/api/admin/users"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].username").value("alice"))
+            .andExpect(jsonPath("$.data[0].hashedPassword").value("********"))
+            .andExpect(jsonPath("$.data[0].securityAnswer").value("********"));
+    }
+
+    @Test
+    void cursorModeSanitizesUsers() throws Exception {
+        when(userService.getUsersPage(isNull(), anyInt()))
+            .thenReturn(CursorPage.of(List.of(user()), 1, User::getId));
+
+        mockMvc.perform(get("/api/admin/users").param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.items[0].username").value("alice"))
+            .andExpect(jsonPath("$.data.items[0].hashedPassword").value("********"))
+            .andExpect(jsonPath("$.data.items[0].securityAnswer").value("********"))
+            .andExpect(jsonPath("$.data.nextCursor").isNotEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamModeSanitizesUsers() throws Exception {
+        doAnswer(invocation -> {
+            ((Consumer<User>) invocation.getArgument(0)).accept(user());
+            return null;
+        }).when(userService).streamAllUsers(any());
+
+        // 流式模式异步写出，需要再派发一次才能拿到响应体
+        MvcResult result = mockMvc.perform(get("/api/admin/users").param("stream", "true"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data[0].username").value("alice"))
+            .andExpect(jsonPath("$.data[0].hashedPassword").value("********"))
+            .andExpect(jsonPath("$.data[0].securityAnswer").value("********"));
+    }
+
+    private static User user() {
+        User user = new User("alice", "$2a$10$secret-hash", "pet?", "rex");
+        user.setId(7L);
+        return user;
+    }
+}
@@ -0,0 +1,86 @@
+package org.tokomoapp.tokomo_be.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.tokomoapp.tokomo_be.service.impl.SiteConfigServiceImpl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ConfigControllerTest {
+
+    @TempDir
+    Path configDir;
+
+    private SiteConfigServiceImpl siteConfigService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(configDir.resolve("site-config.json"), "{\"title\":\"Tokomo\"}");
+        siteConfigService = new SiteConfigServiceImpl();
+        ReflectionTestUtils.setField(siteConfigService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(siteConfigService, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(siteConfigService, "configPath", configDir.toString());
+        siteConfigService.init();
+
+        ConfigController controller = new ConfigController();
+        ReflectionTestUtils.setField(controller, "siteConfigService", siteConfigService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        siteConfigService.destroy();
+    }
+
+    @Test
+    void servesConfigWithEtag() throws Exception {
+        mockMvc.perform(get("/api/site-config"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", siteConfigService.getConfig().getEtag()))
+            .andExpect(header().string("Cache-Control", "no-cache"))
+            .andExpect(jsonPath("$.status").value("ok"))
+            .andExpect(jsonPath("$.data").value("{\"title\":\"Tokomo\"}"));
+    }
+
+    @Test
+    void matchingEtagReturnsNotModified() throws Exception {
+        String etag = siteConfigService.getConfig().getEtag();
+
+        mockMvc.perform(get("/api/site-config").header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        // nginx gzip 之后会把 ETag 变成弱校验
+        mockMvc.perform(get("/api/site-config").header("If-None-Match", "W/" + etag))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void updatedConfigInvalidatesOldEtag() throws Exception {
+        String oldEtag = siteConfigService.getConfig().getEtag();
+        siteConfigService.updateConfig("{\"title\":\"Tokomo Store\"}");
+        assertNotEquals(oldEtag, siteConfigService.getConfig().getEtag());
+
+        mockMvc.perform(get("/api/site-config").header("If-None-Match", oldEtag))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", siteConfigService.getConfig().getEtag()))
+            .andExpect(jsonPath("$.data").value("{\"title\":\"Tokomo Store\"}"));
+    }
+}
@@ -0,0 +1,103 @@
+package org.tokomoapp.tokomo_be.controller;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.tokomoapp.tokomo_be.cache.GameCatalog;
+import org.tokomoapp.tokomo_be.cache.SearchResultCache;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+import org.tokomoapp.tokomo_be.service.impl.GameServiceImpl;
+
+class GameControllerSearchTest {
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        List<Game> games = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            games.add(game(id, "Halo " + id));
+        }
+        games.add(game(6L, "Doom"));
+        GameSearchIndex index = new GameSearchIndex();
+        index.rebuild(games);
+        GameCatalog catalog = new GameCatalog();
+        catalog.replace(games);
+
+        SearchResultCache cache = new SearchResultCache();
+        ReflectionTestUtils.setField(cache, "maxIds", 1000L);
+        cache.init();
+
+        GameServiceImpl gameService = new GameServiceImpl();
+        ReflectionTestUtils.setField(gameService, "gameSearchIndex", index);
+        ReflectionTestUtils.setField(gameService, "searchResultCache", cache);
+        ReflectionTestUtils.setField(gameService, "gameCatalog", catalog);
+
+        GameController controller = new GameController();
+        ReflectionTestUtils.setField(controller, "gameService", gameService);
+        ReflectionTestUtils.setField(controller, "fuzzyDefaultLimit", 2);
+        ReflectionTestUtils.setField(controller, "fuzzyMaxLimit", 100);
+        ReflectionTestUtils.setField(controller, "searchMaxLimit", 3);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void pagesByOffsetAndReportsTotal() throws Exception {
+        mockMvc.perform(get("/api/games/search").param("keyword", "halo").param("limit", "2").param("offset", "2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "5"))
+            .andExpect(jsonPath("$.data", hasSize(2)))
+            .andExpect(jsonPath("$.data[0].id").value(3))
+            .andExpect(jsonPath("$.data[1].id").value(4));
+    }
+
+    @Test
+    void limitIsCappedAtMaxLimit() throws Exception {
+        mockMvc.perform(get("/api/games/search").param("keyword", "halo").param("limit", "100"))
+            .andExpect(header().string("X-Total-Count", "5"))
+            .andExpect(jsonPath("$.data", hasSize(3)));
+    }
+
+    @Test
+    void missingLimitReturnsAllMatches() throws Exception {
+        // 旧版前端不传 limit，需要拿到全部结果
+        mockMvc.perform(get("/api/games/search").param("keyword", "halo"))
+            .andExpect(header().string("X-Total-Count", "5"))
+            .andExpect(jsonPath("$.data", hasSize(5)));
+    }
+
+    @Test
+    void fuzzyModeKeepsItsDefaultLimit() throws Exception {
+        mockMvc.perform(get("/api/games/search").param("keyword", "halo").param("mode", "fuzzy"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data", hasSize(2)));
+    }
+
+    @Test
+    void offsetPastEndReturnsEmptyPage() throws Exception {
+        mockMvc.perform(get("/api/games/search").param("keyword", "halo").param("limit", "2").param("offset", "10"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "5"))
+            .andExpect(jsonPath("$.data", hasSize(0)));
+    }
+
+    private static Game game(Long id, String name) {
+        Game game = new Game();
+        game.setId(id);
+        game.setGameName(name);
+        game.setDownloadUrl("https://example.com/" + id);
+        return game;
+    }
+}
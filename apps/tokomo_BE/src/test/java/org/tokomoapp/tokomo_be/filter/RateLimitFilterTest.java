@@ -0,0 +1,112 @@
+package org.tokomoapp.tokomo_be.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.tokomoapp.tokomo_be.config.RateLimitProperties;
+import org.tokomoapp.tokomo_be.config.RateLimitProperties.Route;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        // 容量 1，每 2.5 秒补充一个令牌
+        properties.getRoutes().put("login", route("/api/user/login", 1, 0.4));
+        filter = new RateLimitFilter(properties, new ObjectMapper());
+    }
+
+    @Test
+    void bucketAllowsBurstThenReportsWait() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(route("/x", 3, 1), 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+        // 拒绝不消耗令牌
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void bucketRefillsOneTokenPerInterval() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(route("/x", 2, 0.5), 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(2 * SECOND, bucket.tryAcquire(0));
+
+        assertEquals(0, bucket.tryAcquire(2 * SECOND));
+        assertEquals(2 * SECOND, bucket.tryAcquire(2 * SECOND));
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(route("/x", 2, 1), 0);
+        bucket.tryAcquire(0);
+
+        long later = 100 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(SECOND, bucket.tryAcquire(later));
+    }
+
+    @Test
+    void zeroCapacityStillAllowsOneRequest() {
+        RateLimitFilter.Bucket bucket = new RateLimitFilter.Bucket(route("/x", 0, 1), 0);
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void rejectsWithRetryAfterRoundedUp() throws Exception {
+        MockHttpServletResponse allowed = send("/api/user/login", "10.0.0.1");
+        assertEquals(200, allowed.getStatus());
+
+        MockHttpServletResponse rejected = send("/api/user/login", "10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        // 需等待约 2.5 秒，向上取整
+        assertEquals("3", rejected.getHeader("Retry-After"));
+    }
+
+    @Test
+    void countsClientsAndRoutesSeparately() throws Exception {
+        send("/api/user/login", "10.0.0.1");
+        assertEquals(200, send("/api/user/login", "10.0.0.2").getStatus());
+        assertEquals(200, send("/api/games", "10.0.0.1").getStatus());
+    }
+
+    private MockHttpServletResponse send(String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == 429) {
+            assertNull(chain.getRequest());
+        } else {
+            assertNotNull(chain.getRequest());
+        }
+        return response;
+    }
+
+    private static Route route(String pattern, int capacity, double refillPerSecond) {
+        Route route = new Route();
+        route.setPattern(pattern);
+        route.setCapacity(capacity);
+        route.setRefillPerSecond(refillPerSecond);
+        return route;
+    }
+}
@@ -0,0 +1,81 @@
+package org.tokomoapp.tokomo_be.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.tokomoapp.tokomo_be.dto.UserGameDTO;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.model.User;
+
+class PurchaseHistoryRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserGameRepository userGameRepository;
+
+    private User buyer;
+    private List<Game> games;
+    private final LocalDateTime purchasedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        buyer = entityManager.persist(new User("buyer", "hash", "question", "answer"));
+        User other = entityManager.persist(new User("other", "hash", "question", "answer"));
+        games = List.of(
+            entityManager.persist(game("Celeste", "平台")),
+            entityManager.persist(game("Hades", "动作")),
+            entityManager.persist(game("Tunic", "冒险")));
+        entityManager.flush();
+
+        for (Game game : games) {
+            userGameRepository.insertIfAbsent(buyer.getId(), game.getId(), purchasedAt);
+        }
+        userGameRepository.insertIfAbsent(other.getId(), games.get(0).getId(), purchasedAt);
+        entityManager.clear();
+    }
+
+    @Test
+    void projectsOnlyListedGameColumns() {
+        List<UserGameDTO> history = userGameRepository.findHistoryByUserId(buyer.getId(), Pageable.unpaged());
+
+        assertEquals(3, history.size());
+        UserGameDTO first = history.get(0);
+        assertEquals(buyer.getId(), first.getUserId());
+        assertEquals(purchasedAt, first.getPurchaseDate());
+        assertEquals(games.get(0).getId(), first.getGame().getId());
+        assertEquals("Celeste", first.getGame().getGameName());
+        assertEquals("平台", first.getGame().getGameType());
+        // 下载地址等字段不在投影中
+        assertNull(first.getGame().getDownloadUrl());
+    }
+
+    @Test
+    void pagesInPurchaseOrder() {
+        List<UserGameDTO> firstPage = userGameRepository.findHistoryByUserId(buyer.getId(), PageRequest.of(0, 2));
+        List<UserGameDTO> secondPage = userGameRepository.findHistoryByUserId(buyer.getId(), PageRequest.of(1, 2));
+
+        assertEquals(List.of("Celeste", "Hades"),
+            firstPage.stream().map(dto -> dto.getGame().getGameName()).toList());
+        assertEquals(List.of("Tunic"),
+            secondPage.stream().map(dto -> dto.getGame().getGameName()).toList());
+    }
+
+    private static Game game(String name, String type) {
+        Game game = new Game();
+        game.setGameName(name);
+        game.setGameType(type);
+        game.setDownloadUrl("https://example.com/" + name);
+        return game;
+    }
+}
@@ -0,0 +1,73 @@
+package org.tokomoapp.tokomo_be.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.model.User;
+
+class PurchaseRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserGameRepository userGameRepository;
+
+    private User user;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        user = new User("buyer", "hash", "question", "answer");
+        user.setPoints(5);
+        user = entityManager.persist(user);
+
+        game = new Game();
+        game.setGameName("Celeste");
+        game.setDownloadUrl("https://example.com/celeste");
+        game = entityManager.persist(game);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void deductsOnlyWhenBalanceIsSufficient() {
+        assertEquals(Optional.of(2), userRepository.deductPointsIfSufficient(user.getId(), 3));
+        assertTrue(userRepository.deductPointsIfSufficient(user.getId(), 3).isEmpty());
+        assertEquals(Optional.of(0), userRepository.deductPointsIfSufficient(user.getId(), 2));
+
+        entityManager.clear();
+        assertEquals(0, entityManager.find(User.class, user.getId()).getPoints());
+    }
+
+    @Test
+    void nullBalanceIsNeverSufficient() {
+        User legacy = new User("legacy", "hash", "question", "answer");
+        legacy.setPoints(null);
+        legacy = entityManager.persistAndFlush(legacy);
+
+        assertTrue(userRepository.deductPointsIfSufficient(legacy.getId(), 1).isEmpty());
+    }
+
+    @Test
+    void insertIfAbsentIgnoresDuplicatePurchase() {
+        LocalDateTime now = LocalDateTime.now();
+        assertEquals(1, userGameRepository.insertIfAbsent(user.getId(), game.getId(), now));
+        assertEquals(0, userGameRepository.insertIfAbsent(user.getId(), game.getId(), now));
+
+        assertTrue(userGameRepository.existsByUserIdAndGameId(user.getId(), game.getId()));
+        assertEquals(1, userGameRepository.findByUserId(user.getId()).size());
+    }
+}
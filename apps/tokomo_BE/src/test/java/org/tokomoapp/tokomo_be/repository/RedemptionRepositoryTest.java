@@ -0,0 +1,114 @@
+package org.tokomoapp.tokomo_be.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.tokomoapp.tokomo_be.model.PaymentCode;
+import org.tokomoapp.tokomo_be.model.User;
+import org.tokomoapp.tokomo_be.model.VipCode;
+
+class RedemptionRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private VipCodeRepository vipCodeRepository;
+
+    @Autowired
+    private PaymentCodeRepository paymentCodeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    // timestamp(6) 只保留到微秒
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("redeemer", "hash", "question", "answer"));
+
+        VipCode vipCode = new VipCode();
+        vipCode.setCode("VIP-1");
+        vipCode.setValidDays(30);
+        entityManager.persist(vipCode);
+
+        PaymentCode paymentCode = new PaymentCode();
+        paymentCode.setCode("PAY-1");
+        paymentCode.setPoints(50);
+        entityManager.persist(paymentCode);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void vipCodeIsClaimedOnce() {
+        assertEquals(Optional.of(30), vipCodeRepository.claim("VIP-1", user.getId(), now));
+        assertTrue(vipCodeRepository.claim("VIP-1", user.getId(), now).isEmpty());
+        assertTrue(vipCodeRepository.claim("MISSING", user.getId(), now).isEmpty());
+
+        entityManager.clear();
+        assertTrue(vipCodeRepository.findByCodeAndUsedFalse("VIP-1").isEmpty());
+        VipCode claimed = vipCodeRepository.findAll().get(0);
+        assertTrue(claimed.isUsed());
+        assertEquals(user.getId(), claimed.getUsedBy());
+        assertEquals(now, claimed.getUsedAt());
+    }
+
+    @Test
+    void paymentCodeIsClaimedOnce() {
+        assertEquals(Optional.of(50), paymentCodeRepository.claim("PAY-1", user.getId(), now));
+        assertTrue(paymentCodeRepository.claim("PAY-1", user.getId(), now).isEmpty());
+
+        entityManager.clear();
+        PaymentCode claimed = paymentCodeRepository.findByCode("PAY-1").orElseThrow();
+        assertTrue(claimed.getUsed());
+        assertEquals(user.getId(), claimed.getUsedBy());
+    }
+
+    @Test
+    void extendVipStartsFromNowWhenExpired() {
+        User extended = userRepository.extendVip(user.getId(), 30, now).orElseThrow();
+        assertEquals(now.plusDays(30), extended.getVipExpireDate());
+
+        // 未过期时在原到期时间上顺延
+        entityManager.clear();
+        extended = userRepository.extendVip(user.getId(), 10, now.plusDays(1)).orElseThrow();
+        assertEquals(now.plusDays(40), extended.getVipExpireDate());
+    }
+
+    @Test
+    void extendVipIgnoresPastExpiry() {
+        User expired = userRepository.findById(user.getId()).orElseThrow();
+        expired.setVipExpireDate(now.minusDays(5));
+        entityManager.flush();
+        entityManager.clear();
+
+        User extended = userRepository.extendVip(user.getId(), 7, now).orElseThrow();
+        assertEquals(now.plusDays(7), extended.getVipExpireDate());
+    }
+
+    @Test
+    void addPointsTreatsNullBalanceAsZero() {
+        User legacy = new User("legacy", "hash", "question", "answer");
+        legacy.setPoints(null);
+        legacy = entityManager.persistAndFlush(legacy);
+        entityManager.clear();
+
+        assertEquals(50, userRepository.addPoints(legacy.getId(), 50).orElseThrow().getPoints());
+        entityManager.clear();
+        assertEquals(60, userRepository.addPoints(legacy.getId(), 10).orElseThrow().getPoints());
+        assertFalse(userRepository.addPoints(-1L, 10).isPresent());
+    }
+}
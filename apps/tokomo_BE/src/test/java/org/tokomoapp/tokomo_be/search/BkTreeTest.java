@@ -0,0 +1,60 @@
+package org.tokomoapp.tokomo_be.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BkTreeTest {
+
+    private static final List<String> TERMS = List.of(
+        "dragon", "dragons", "wagon", "drag", "quest", "guest", "quests", "fantasy", "final", "finale",
+        "chuanshuo", "chuanqi", "portal", "mortal", "celeste");
+
+    private BkTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BkTree();
+        TERMS.forEach(tree::add);
+    }
+
+    @Test
+    void distanceIsLevenshtein() {
+        assertEquals(0, BkTree.distance("quest", "quest"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(3, BkTree.distance("", "abc"));
+        assertEquals(1, BkTree.distance("dragn", "dragon"));
+        assertEquals(BkTree.distance("flaw", "lawn"), BkTree.distance("lawn", "flaw"));
+    }
+
+    @Test
+    void duplicatesAreNotAdded() {
+        tree.add("dragon");
+        assertEquals(TERMS.size(), tree.size());
+        tree.clear();
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    void searchMatchesLinearScan() {
+        for (String query : List.of("dragn", "gest", "fianl", "portla", "chuanshou", "zzzz", "dragon")) {
+            for (int maxDistance = 0; maxDistance <= 2; maxDistance++) {
+                Map<String, Integer> expected = new HashMap<>();
+                for (String term : TERMS) {
+                    int d = BkTree.distance(term, query);
+                    if (d <= maxDistance) {
+                        expected.put(term, d);
+                    }
+                }
+                Map<String, Integer> actual = new HashMap<>();
+                tree.search(query, maxDistance, actual::put);
+                assertEquals(expected, actual, query + " within " + maxDistance);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.tokomoapp.tokomo_be.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FuzzyIndexTest {
+
+    private FuzzyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyIndex();
+        index.put(1L, "Dragon Quest");
+        index.put(2L, "Dragon Slayer");
+        index.put(3L, "Final Fantasy");
+        index.put(4L, "Quest");
+        index.put(5L, "Quests");
+        index.put(10L, "勇者传说");
+    }
+
+    @Test
+    void termsIncludePinyinPairsAndAcronym() {
+        List<String> latin = List.of(FuzzyIndex.terms("Final Fantasy"));
+        assertEquals(List.of("final", "fantasy", "ff"), latin);
+
+        List<String> han = List.of(FuzzyIndex.terms("勇者传说"));
+        assertTrue(han.containsAll(List.of("勇者传说", "yongzhechuanshuo", "yzcs", "传说", "chuanshuo")));
+    }
+
+    @Test
+    void tokenizeSplitsHanFromLatin() {
+        assertEquals(List.of("final", "fantasy", "7"), FuzzyIndex.tokenize("Final-Fantasy 7"));
+        assertEquals(List.of("勇者", "quest"), FuzzyIndex.tokenize("勇者Quest"));
+    }
+
+    @Test
+    void maxDistanceGrowsWithLength() {
+        assertEquals(0, FuzzyIndex.maxDistance("ff"));
+        assertEquals(0, FuzzyIndex.maxDistance("2077"));
+        assertEquals(1, FuzzyIndex.maxDistance("quest"));
+        assertEquals(2, FuzzyIndex.maxDistance("fantasy"));
+    }
+
+    @Test
+    void exactMatchOutranksTypoMatch() {
+        // "quest" 精确命中 1、4，"quests" 距离 1 命中 5
+        assertArrayEquals(new long[] {1, 4, 5}, index.search("quest", 10));
+        assertArrayEquals(new long[] {1}, index.search("quest", 1));
+    }
+
+    @Test
+    void scoreIsAveragedOverQueryTerms() {
+        assertArrayEquals(new long[] {1, 2}, index.search("dragon quest", 2));
+        // 每个名称只命中一个查询词，同分按 id 升序
+        assertArrayEquals(new long[] {1, 2, 3}, index.search("dragon fantasy", 10));
+    }
+
+    @Test
+    void typosAndPinyinFindHanNames() {
+        assertArrayEquals(new long[] {1, 2}, index.search("dragn", 10));
+        assertArrayEquals(new long[] {10}, index.search("传硕", 10));
+        assertArrayEquals(new long[] {10}, index.search("chuanshou", 10));
+        assertArrayEquals(new long[] {10}, index.search("yzcs", 10));
+        assertArrayEquals(new long[] {3}, index.search("ff", 10));
+    }
+
+    @Test
+    void emptyQueryOrLimitReturnsNothing() {
+        assertArrayEquals(new long[0], index.search("  ", 10));
+        assertArrayEquals(new long[0], index.search("quest", 0));
+    }
+
+    @Test
+    void removedIdsAreNotReturned() {
+        index.remove(1L);
+        assertArrayEquals(new long[] {2}, index.search("dragn", 10));
+        index.remove(2L);
+        // 词条仍在 BK 树中，但倒排表已删除
+        assertArrayEquals(new long[0], index.search("dragn", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void commonTermsAreCappedPerTerm() {
+        FuzzyIndex large = new FuzzyIndex();
+        int common = FuzzyIndex.MAX_CANDIDATES_PER_TERM + 500;
+        for (long id = 1; id <= common; id++) {
+            large.put(id, "Common");
+        }
+        large.put(5000L, "Common Rare");
+
+        // 5000 同时命中两个查询词；其余候选取 "common" 倒排表中 id 最小的部分
+        assertArrayEquals(new long[] {5000, 1, 2, 3, 4}, large.search("common rare", 5));
+        assertArrayEquals(new long[] {1, 2, 3}, large.search("common", 3));
+    }
+}
@@ -0,0 +1,92 @@
+package org.tokomoapp.tokomo_be.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NgramIndexTest {
+
+    private NgramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NgramIndex();
+    }
+
+    @Test
+    void postingsStaySortedAndUnique() {
+        NgramIndex.Postings postings = new NgramIndex.Postings();
+        for (long id : new long[] {5, 1, 9, 3, 5, 7, 1, 11}) {
+            postings.add(id);
+        }
+        assertArrayEquals(new long[] {1, 3, 5, 7, 9, 11}, Arrays.copyOf(postings.ids, postings.size));
+
+        assertTrue(postings.remove(5));
+        assertFalse(postings.remove(5));
+        assertTrue(postings.remove(11));
+        assertArrayEquals(new long[] {1, 3, 7, 9}, Arrays.copyOf(postings.ids, postings.size));
+    }
+
+    @Test
+    void retainAllKeepsIntersectionInPlace() {
+        NgramIndex.Postings postings = new NgramIndex.Postings();
+        for (long id : new long[] {2, 4, 6, 8, 10}) {
+            postings.add(id);
+        }
+        // 只处理前 count 个候选，之后的元素不参与
+        long[] candidates = {1, 2, 3, 6, 10, 12, 4};
+        int kept = postings.retainAll(candidates, 6);
+        assertEquals(3, kept);
+        assertArrayEquals(new long[] {2, 6, 10}, Arrays.copyOf(candidates, kept));
+
+        NgramIndex.Postings empty = new NgramIndex.Postings();
+        assertEquals(0, empty.retainAll(new long[] {1, 2}, 2));
+    }
+
+    @Test
+    void searchIntersectsGramsAndVerifiesSubstring() {
+        index.put(1L, "Dragon Quest");
+        index.put(2L, "Quest of Dragons");
+        index.put(3L, "Final Fantasy");
+        // "ragon" 的片段 rag、ago、gon 都出现在 4 中，但不连续
+        index.put(4L, "rago ago agon");
+
+        assertArrayEquals(new long[] {1, 2}, index.search("DRAGON"));
+        assertArrayEquals(new long[] {1, 2}, index.search("quest"));
+        assertArrayEquals(new long[] {1, 2, 4}, index.search("ago"));
+        assertArrayEquals(new long[] {1, 2}, index.search("ragon"));
+        assertArrayEquals(new long[0], index.search("zelda"));
+    }
+
+    @Test
+    void shortQueryScansKeys() {
+        index.put(30L, "Halo");
+        index.put(10L, "Hades");
+        index.put(20L, "Celeste");
+
+        assertArrayEquals(new long[] {10, 30}, index.search("ha"));
+        assertArrayEquals(new long[] {10, 20, 30}, index.search(""));
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsEmptyPostings() {
+        index.put(1L, "Portal");
+        index.put(1L, "Celeste");
+        assertArrayEquals(new long[0], index.search("portal"));
+        assertArrayEquals(new long[] {1}, index.search("celes"));
+        assertEquals(1, index.size());
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertArrayEquals(new long[0], index.search("celes"));
+
+        index.put(2L, null);
+        assertEquals(0, index.size());
+    }
+}
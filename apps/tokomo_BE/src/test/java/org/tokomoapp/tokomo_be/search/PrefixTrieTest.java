@@ -0,0 +1,150 @@
+package org.tokomoapp.tokomo_be.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrefixTrieTest {
+
+    private PrefixTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new PrefixTrie();
+    }
+
+    @Test
+    void splitsEdgesOnCommonPrefix() {
+        trie.put(1L, "dragon quest");
+        trie.put(2L, "dragon slayer");
+        trie.put(3L, "drag racer");
+        trie.put(4L, "drag");
+
+        assertArrayEquals(new long[] {1, 2, 3, 4}, trie.suggest("d", 10));
+        assertArrayEquals(new long[] {1, 2, 3, 4}, trie.suggest("drag", 10));
+        assertArrayEquals(new long[] {1, 2}, trie.suggest("drago", 10));
+        assertArrayEquals(new long[] {2}, trie.suggest("dragon s", 10));
+        assertArrayEquals(new long[] {3}, trie.suggest("drag ", 10));
+        assertArrayEquals(new long[0], trie.suggest("dragx", 10));
+        assertArrayEquals(new long[0], trie.suggest("dragon questing", 10));
+        assertArrayEquals(new long[] {1, 2}, trie.suggest("", 2));
+    }
+
+    @Test
+    void ranksByPopularityThenId() {
+        trie.setPopularity(Map.of(3L, 5L, 2L, 5L));
+        trie.put(1L, "halo");
+        trie.put(2L, "hades");
+        trie.put(3L, "hallow");
+
+        assertArrayEquals(new long[] {2, 3, 1}, trie.suggest("ha", 10));
+        trie.addPopularity(1L, 10);
+        assertArrayEquals(new long[] {1, 2, 3}, trie.suggest("ha", 10));
+        assertArrayEquals(new long[] {1, 3}, trie.suggest("hal", 10));
+    }
+
+    @Test
+    void removePrunesAndRecomputesTop() {
+        trie.put(1L, "portal");
+        trie.put(2L, "portal 2");
+        trie.put(3L, "port royale");
+        trie.addPopularity(2L, 3);
+
+        trie.remove(2L);
+        assertArrayEquals(new long[] {1, 3}, trie.suggest("port", 10));
+        assertArrayEquals(new long[0], trie.suggest("portal ", 10));
+
+        trie.remove(1L);
+        trie.remove(3L);
+        assertEquals(0, trie.size());
+        assertArrayEquals(new long[0], trie.suggest("p", 10));
+
+        // 删除后热度一并清除
+        trie.put(2L, "portal 2");
+        trie.put(1L, "portal");
+        assertArrayEquals(new long[] {1, 2}, trie.suggest("portal", 10));
+    }
+
+    @Test
+    void renameKeepsPopularity() {
+        trie.put(1L, "alpha");
+        trie.put(2L, "alpine");
+        trie.addPopularity(2L, 1);
+        trie.put(2L, "alps");
+
+        assertArrayEquals(new long[] {2, 1}, trie.suggest("al", 10));
+        assertArrayEquals(new long[0], trie.suggest("alpi", 10));
+    }
+
+    @Test
+    void keepsOnlyTopKPerNode() {
+        for (long id = 1; id <= PrefixTrie.TOP_K + 5; id++) {
+            trie.put(id, "game " + id);
+        }
+        trie.addPopularity(PrefixTrie.TOP_K + 5, 1);
+
+        long[] top = trie.suggest("game", 100);
+        assertEquals(PrefixTrie.TOP_K, top.length);
+        assertEquals(PrefixTrie.TOP_K + 5, top[0]);
+        assertEquals(1, top[1]);
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomUpdates() {
+        Random random = new Random(42);
+        Map<Long, String> keys = new HashMap<>();
+        Map<Long, Long> popularity = new HashMap<>();
+        String[] prefixes = {"", "a", "b", "ab", "ba", "aa", "aba", "bab", "abba", "baab"};
+
+        for (int step = 0; step < 3000; step++) {
+            long id = random.nextInt(40);
+            int op = random.nextInt(10);
+            if (op < 5) {
+                String key = randomKey(random);
+                trie.put(id, key);
+                keys.put(id, key);
+            } else if (op < 7) {
+                trie.remove(id);
+                keys.remove(id);
+                popularity.remove(id);
+            } else {
+                long delta = 1 + random.nextInt(3);
+                trie.addPopularity(id, delta);
+                popularity.merge(id, delta, Long::sum);
+            }
+
+            for (String prefix : prefixes) {
+                assertArrayEquals(expected(keys, popularity, prefix), trie.suggest(prefix, PrefixTrie.TOP_K),
+                    "step " + step + " prefix '" + prefix + "'");
+            }
+        }
+        assertEquals(keys.size(), trie.size());
+    }
+
+    private static String randomKey(Random random) {
+        int length = 1 + random.nextInt(6);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(random.nextBoolean() ? 'a' : 'b');
+        }
+        return sb.toString();
+    }
+
+    private static long[] expected(Map<Long, String> keys, Map<Long, Long> popularity, String prefix) {
+        return keys.entrySet().stream()
+            .filter(entry -> entry.getValue().startsWith(prefix))
+            .map(Map.Entry::getKey)
+            .sorted(Comparator.<Long>comparingLong(id -> -popularity.getOrDefault(id, 0L))
+                .thenComparingLong(id -> id))
+            .limit(PrefixTrie.TOP_K)
+            .mapToLong(Long::longValue)
+            .toArray();
+    }
+}
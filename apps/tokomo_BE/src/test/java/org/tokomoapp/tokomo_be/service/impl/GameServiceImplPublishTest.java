@@ -0,0 +1,114 @@
+package org.tokomoapp.tokomo_be.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.tokomoapp.tokomo_be.cache.GameCatalog;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.repository.GameRepository;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+
+/**
+ * 提交后回调写入目录快照与搜索索引的数据来自数据库中已提交的行，而不是事务内的实体
+ */
+class GameServiceImplPublishTest {
+
+    // 模拟数据库中已提交的行
+    private final Map<Long, Game> committed = new TreeMap<>();
+    private GameRepository gameRepository;
+    private GameCatalog gameCatalog;
+    private GameSearchIndex gameSearchIndex;
+    private GameServiceImpl gameService;
+
+    @BeforeEach
+    void setUp() {
+        gameRepository = mock(GameRepository.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), ArgumentMatchers.<RowMapper<Game>>any()))
+            .thenAnswer(invocation -> new ArrayList<>(committed.values()));
+
+        committed.put(1L, game(1L, "Halo", "https://example.com/halo"));
+        gameCatalog = new GameCatalog();
+        gameCatalog.replace(committed.values());
+        gameSearchIndex = new GameSearchIndex();
+        gameSearchIndex.rebuild(committed.values());
+
+        gameService = new GameServiceImpl();
+        ReflectionTestUtils.setField(gameService, "gameRepository", gameRepository);
+        ReflectionTestUtils.setField(gameService, "gameCatalog", gameCatalog);
+        ReflectionTestUtils.setField(gameService, "gameSearchIndex", gameSearchIndex);
+        ReflectionTestUtils.setField(gameService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(gameService, "importBatchSize", 1000);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void updatePublishesLatestCommittedRow() {
+        when(gameRepository.findById(1L)).thenReturn(Optional.of(game(1L, "Halo", "https://example.com/halo")));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Game updates = new Game();
+        updates.setDownloadUrl("https://example.com/halo-2");
+        gameService.updateGame(1L, updates);
+
+        // 本事务提交后、回调执行前，另一个事务又修改了同一行并已提交
+        committed.put(1L, game(1L, "Halo Reach", "https://example.com/halo-3"));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        Game cached = gameCatalog.findById(1L).orElseThrow();
+        assertEquals("Halo Reach", cached.getGameName());
+        assertEquals("https://example.com/halo-3", cached.getDownloadUrl());
+        assertEquals(1, gameSearchIndex.searchIds("reach").length);
+    }
+
+    @Test
+    void rowDeletedBeforeCallbackIsRemoved() {
+        when(gameRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Game> saved = new ArrayList<>(invocation.getArgument(0));
+            saved.forEach(game -> game.setId(2L));
+            return saved;
+        });
+
+        gameService.saveGames(List.of(game(null, "Portal", "https://example.com/portal")));
+        // 回调执行前这一行已被另一个事务删除
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        assertTrue(gameCatalog.findById(2L).isEmpty());
+        assertEquals(0, gameSearchIndex.searchIds("portal").length);
+        assertEquals(1, gameCatalog.size());
+    }
+
+    private static Game game(Long id, String name, String downloadUrl) {
+        Game game = new Game();
+        game.setId(id);
+        game.setGameName(name);
+        game.setGameType("RPG");
+        game.setDownloadUrl(downloadUrl);
+        return game;
+    }
+}
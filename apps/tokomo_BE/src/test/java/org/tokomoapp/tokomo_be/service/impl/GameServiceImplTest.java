@@ -0,0 +1,178 @@
+package org.tokomoapp.tokomo_be.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.tokomoapp.tokomo_be.cache.GameCatalog;
+import org.tokomoapp.tokomo_be.cache.SearchResultCache;
+import org.tokomoapp.tokomo_be.dto.GameImportReport;
+import org.tokomoapp.tokomo_be.dto.GameImportReport.BatchProgress;
+import org.tokomoapp.tokomo_be.dto.GamePurgeResult;
+import org.tokomoapp.tokomo_be.model.Game;
+import org.tokomoapp.tokomo_be.repository.GameRepository;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+import org.tokomoapp.tokomo_be.service.GameService;
+
+/**
+ * 导入与清空目录都逐批提交，失败的批次需要真实回滚，因此不使用测试事务，每个用例结束后清空表
+ */
+@DataJpaTest(properties = {"game.import.batch-size=2", "game.purge.chunk-size=2"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({GameServiceImpl.class, GameSearchIndex.class, GameCatalog.class, SearchResultCache.class})
+class GameServiceImplTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private GameCatalog gameCatalog;
+
+    @Autowired
+    private GameSearchIndex gameSearchIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        gameRepository.save(game("Halo", "https://example.com/halo"));
+        gameCatalog.replace(gameRepository.findAll());
+        gameSearchIndex.rebuild(gameRepository.findAll());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM user_games");
+        jdbcTemplate.update("DELETE FROM games");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRow() {
+        List<Game> rows = List.of(
+            game("Celeste", "https://example.com/celeste"),
+            game("Portal", "https://example.com/portal"),
+            // 第二批：download_url 为空违反非空约束，整批回滚后逐行写入
+            game("Hades", "https://example.com/hades"),
+            game("Broken", null),
+            game("Halo", "https://example.com/halo-2"));
+
+        List<BatchProgress> batches = new ArrayList<>();
+        GameImportReport report = gameService.importGames(rows, "merge", batches::add);
+
+        assertEquals(3, batches.size());
+        assertNull(batches.get(0).getError());
+        BatchProgress failed = batches.get(1);
+        assertNotNull(failed.getError());
+        // 整批失败时 Hades 的名称不能计入已有名称，重试后仍记为新增
+        assertEquals(1, failed.getInserted());
+        assertEquals(0, failed.getUpdated());
+        assertEquals(1, failed.getFailed());
+        assertTrue(failed.getFailedRows().get(0).startsWith("第 4 条 [Broken]"));
+
+        assertEquals(3, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(1, report.getFailed());
+
+        assertEquals(4, gameRepository.count());
+        assertTrue(gameRepository.findByGameName("Broken").isEmpty());
+        assertEquals("https://example.com/halo-2",
+            gameCatalog.findByName("Halo").orElseThrow().getDownloadUrl());
+        assertTrue(gameCatalog.findByName("Hades").isPresent());
+        assertEquals(4, gameCatalog.size());
+        assertEquals(4, gameSearchIndex.size());
+    }
+
+    @Test
+    void committedBatchesReachCatalogWhenImportIsCancelled() {
+        List<Game> rows = List.of(
+            game("Celeste", "https://example.com/celeste"),
+            game("Portal", "https://example.com/portal"),
+            game("Hades", "https://example.com/hades"));
+
+        // 第一批提交后取消，已提交的批次仍需进入目录快照与搜索索引
+        assertThrows(IllegalStateException.class, () -> gameService.importGames(rows, "merge", batch -> {
+            // 导入过程中两者都还是导入前的状态
+            assertEquals(1, gameCatalog.size());
+            assertEquals(1, gameSearchIndex.size());
+            throw new IllegalStateException("cancelled");
+        }));
+
+        assertEquals(3, gameRepository.count());
+        assertTrue(gameCatalog.findByName("Portal").isPresent());
+        assertTrue(gameCatalog.findByName("Hades").isEmpty());
+        assertEquals(3, gameCatalog.size());
+        assertEquals(3, gameSearchIndex.size());
+        assertEquals(1, gameSearchIndex.searchIds("portal").length);
+    }
+
+    @Test
+    void purgeDeletesUnpurchasedGamesInChunks() {
+        List<Game> saved = gameRepository.saveAll(List.of(
+            game("Celeste", "https://example.com/celeste"),
+            game("Portal", "https://example.com/portal"),
+            game("Hades", "https://example.com/hades"),
+            game("Doom", "https://example.com/doom")));
+        gameCatalog.replace(gameRepository.findAll());
+        gameSearchIndex.rebuild(gameRepository.findAll());
+
+        // 已购买的游戏夹在两批之间，下一批从上一批最大的 id 之后继续
+        Long userId = jdbcTemplate.queryForObject(
+            "INSERT INTO users (username, hashed_password, security_question, security_answer) " +
+            "VALUES ('buyer', 'hash', 'question', 'answer') RETURNING id", Long.class);
+        Long portalId = saved.get(1).getId();
+        Long doomId = saved.get(3).getId();
+        for (Long gameId : List.of(portalId, doomId)) {
+            jdbcTemplate.update("INSERT INTO user_games (user_id, game_id, purchase_date) VALUES (?, ?, now())",
+                userId, gameId);
+        }
+
+        GamePurgeResult result = gameService.deleteAllGames();
+
+        assertEquals(3, result.getDeleted());
+        assertEquals(List.of(portalId, doomId), result.getSkippedIds());
+        assertEquals(2, gameRepository.count());
+        assertTrue(gameRepository.existsById(portalId));
+        assertTrue(gameRepository.existsById(doomId));
+        assertEquals(2, gameCatalog.size());
+        assertTrue(gameCatalog.findByName("Halo").isEmpty());
+        assertEquals(2, gameSearchIndex.size());
+    }
+
+    private static Game game(String name, String downloadUrl) {
+        Game game = new Game();
+        game.setGameName(name);
+        game.setGameType("RPG");
+        game.setDownloadUrl(downloadUrl);
+        return game;
+    }
+}
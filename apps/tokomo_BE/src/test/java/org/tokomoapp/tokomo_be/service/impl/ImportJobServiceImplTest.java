@@ -0,0 +1,161 @@
+package org.tokomoapp.tokomo_be.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tokomoapp.tokomo_be.model.ImportJob;
+import org.tokomoapp.tokomo_be.model.VipCode;
+import org.tokomoapp.tokomo_be.service.GameService;
+import org.tokomoapp.tokomo_be.service.PaymentService;
+import org.tokomoapp.tokomo_be.service.VipService;
+
+class ImportJobServiceImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Deque<Runnable> queued = new ArrayDeque<>();
+    private VipService vipService;
+    private ImportJobServiceImpl importJobService;
+
+    @BeforeEach
+    void setUp() {
+        vipService = mock(VipService.class);
+        importJobService = new ImportJobServiceImpl();
+        // 任务先排队，由测试决定何时执行
+        AsyncTaskExecutor executor = queued::add;
+        ReflectionTestUtils.setField(importJobService, "vipService", vipService);
+        ReflectionTestUtils.setField(importJobService, "gameService", mock(GameService.class));
+        ReflectionTestUtils.setField(importJobService, "paymentService", mock(PaymentService.class));
+        ReflectionTestUtils.setField(importJobService, "importExecutor", executor);
+        ReflectionTestUtils.setField(importJobService, "streamingThreshold", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(importJobService, "batchSize", 2);
+    }
+
+    @Test
+    void countsParsedDuplicateAndWrittenRows() throws IOException {
+        List<List<VipCode>> written = replaceInChunks(null);
+        Path file = csv("VIP-A,30", "VIP-B,30", "VIP-A,60", "VIP-C,30");
+
+        ImportJob job = importJobService.submitVipImport(file.toString());
+        assertEquals(ImportJob.Status.PENDING, job.getStatus());
+        runQueued();
+
+        assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(4, job.getRowsParsed());
+        assertEquals(1, job.getDuplicates());
+        assertEquals(3, job.getRowsWritten());
+        assertEquals(0, job.getErrors());
+        assertEquals(2, written.size());
+        // 同名以最后一行为准
+        assertEquals(60, written.get(0).get(0).getValidDays());
+        verify(vipService, never()).deleteAllVipCodes();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void failedWriteRollsBackWholeImport() throws IOException {
+        replaceInChunks(chunk -> {
+            throw new IllegalStateException("duplicate key");
+        });
+        Path file = csv("VIP-A,30", "VIP-B,30", "VIP-C,30");
+
+        ImportJob job = importJobService.submitVipImport(file.toString());
+        runQueued();
+
+        assertEquals(ImportJob.Status.FAILED, job.getStatus());
+        assertEquals("duplicate key", job.getMessage());
+        // 整个事务回滚，已写入的行数清零
+        assertEquals(0, job.getRowsWritten());
+    }
+
+    @Test
+    void pendingJobIsCancelledWithoutTouchingData() throws IOException {
+        Path file = csv("VIP-A,30");
+
+        ImportJob job = importJobService.submitVipImport(file.toString());
+        assertTrue(importJobService.cancelJob(job.getId()));
+        assertEquals(ImportJob.Status.CANCELLED, job.getStatus());
+        runQueued();
+
+        assertEquals(ImportJob.Status.CANCELLED, job.getStatus());
+        verifyNoInteractions(vipService);
+        assertFalse(Files.exists(file));
+        assertFalse(importJobService.cancelJob(job.getId()));
+    }
+
+    @Test
+    void runningJobIsCancelledAtChunkBoundaryAndRolledBack() throws IOException {
+        ImportJob[] current = new ImportJob[1];
+        List<List<VipCode>> written = replaceInChunks(chunk -> importJobService.cancelJob(current[0].getId()));
+        Path file = csv("VIP-A,30", "VIP-B,30", "VIP-C,30", "VIP-D,30");
+
+        current[0] = importJobService.submitVipImport(file.toString());
+        runQueued();
+
+        ImportJob job = current[0];
+        assertEquals(ImportJob.Status.CANCELLED, job.getStatus());
+        assertEquals(1, written.size());
+        assertEquals(0, job.getRowsWritten());
+    }
+
+    /**
+     * 模拟 replaceAllVipCodes：按批写入并回调 onBatch，beforeBatch 可在写入前抛出异常或取消任务
+     */
+    private List<List<VipCode>> replaceInChunks(Consumer<List<VipCode>> beforeBatch) {
+        List<List<VipCode>> written = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<VipCode> codes = invocation.getArgument(0);
+            int batchSize = invocation.getArgument(1);
+            Consumer<List<VipCode>> onBatch = invocation.getArgument(2);
+            for (int start = 0; start < codes.size(); start += batchSize) {
+                List<VipCode> chunk = codes.subList(start, Math.min(start + batchSize, codes.size()));
+                if (beforeBatch != null) {
+                    beforeBatch.accept(chunk);
+                }
+                written.add(chunk);
+                onBatch.accept(chunk);
+            }
+            return null;
+        }).when(vipService).replaceAllVipCodes(anyList(), anyInt(), any());
+        return written;
+    }
+
+    private Path csv(String... rows) throws IOException {
+        Path file = tempDir.resolve("vip-" + System.nanoTime() + ".csv");
+        StringBuilder content = new StringBuilder("code,validDays\n");
+        for (String row : rows) {
+            content.append(row).append('\n');
+        }
+        return Files.writeString(file, content);
+    }
+
+    private void runQueued() {
+        while (!queued.isEmpty()) {
+            queued.poll().run();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.tokomoapp.tokomo_be.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.tokomoapp.tokomo_be.cache.EntitlementCache;
+import org.tokomoapp.tokomo_be.exception.GameAlreadyOwnedException;
+import org.tokomoapp.tokomo_be.exception.InsufficientPointsException;
+import org.tokomoapp.tokomo_be.repository.UserGameRepository;
+import org.tokomoapp.tokomo_be.repository.UserRepository;
+import org.tokomoapp.tokomo_be.search.GameSearchIndex;
+
+class UserGameServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Long GAME_ID = 2L;
+
+    private UserRepository userRepository;
+    private UserGameRepository userGameRepository;
+    private EntitlementCache entitlementCache;
+    private UserGameServiceImpl userGameService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        userGameRepository = mock(UserGameRepository.class);
+        entitlementCache = mock(EntitlementCache.class);
+
+        userGameService = new UserGameServiceImpl();
+        ReflectionTestUtils.setField(userGameService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userGameService, "userGameRepository", userGameRepository);
+        ReflectionTestUtils.setField(userGameService, "entitlementCache", entitlementCache);
+        ReflectionTestUtils.setField(userGameService, "gameSearchIndex", new GameSearchIndex());
+    }
+
+    @Test
+    void ownerIsToldTheyOwnTheGameBeforePointsAreChecked() {
+        when(entitlementCache.owns(eq(USER_ID), eq(GAME_ID), any())).thenReturn(true);
+        when(userRepository.deductPointsIfSufficient(anyLong(), anyInt())).thenReturn(Optional.empty());
+
+        assertThrows(GameAlreadyOwnedException.class, () -> userGameService.purchase(USER_ID, GAME_ID, 10));
+        verify(userRepository, never()).deductPointsIfSufficient(anyLong(), anyInt());
+        verify(userGameRepository, never()).insertIfAbsent(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void insufficientPointsAreReportedForNewPurchases() {
+        when(userRepository.deductPointsIfSufficient(USER_ID, 10)).thenReturn(Optional.empty());
+
+        assertThrows(InsufficientPointsException.class, () -> userGameService.purchase(USER_ID, GAME_ID, 10));
+        verify(userGameRepository, never()).insertIfAbsent(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void purchaseDeductsPointsAndRecordsOwnership() {
+        when(userRepository.deductPointsIfSufficient(USER_ID, 10)).thenReturn(Optional.of(5));
+        when(userGameRepository.insertIfAbsent(eq(USER_ID), eq(GAME_ID), any())).thenReturn(1);
+
+        assertEquals(5, userGameService.purchase(USER_ID, GAME_ID, 10));
+        verify(entitlementCache).add(USER_ID, GAME_ID);
+    }
+
+    @Test
+    void conflictInvalidatesCacheOnlyAfterRollback() {
+        when(userRepository.deductPointsIfSufficient(USER_ID, 10)).thenReturn(Optional.of(5));
+        when(userGameRepository.insertIfAbsent(eq(USER_ID), eq(GAME_ID), any())).thenReturn(0);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(GameAlreadyOwnedException.class, () -> userGameService.purchase(USER_ID, GAME_ID, 10));
+            verify(entitlementCache, never()).add(anyLong(), anyLong());
+            verify(entitlementCache, never()).invalidate(anyLong());
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+            verify(entitlementCache).invalidate(USER_ID);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.tokomoapp.tokomo_be.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.tokomoapp.tokomo_be.cache.EntitlementCache;
+import org.tokomoapp.tokomo_be.cache.PrincipalCache;
+import org.tokomoapp.tokomo_be.dto.UserUpdateDTO;
+import org.tokomoapp.tokomo_be.model.User;
+import org.tokomoapp.tokomo_be.repository.PaymentCodeRepository;
+import org.tokomoapp.tokomo_be.repository.UserRepository;
+import org.tokomoapp.tokomo_be.repository.VipCodeRepository;
+import org.tokomoapp.tokomo_be.util.PasswordHasher;
+
+class UserServiceImplTest {
+
+    private static final Long USER_ID = 7L;
+
+    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+    private UserServiceImpl userService;
+    private User stored;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        stored = new User("alice", "hash", "question", "answer");
+        stored.setId(USER_ID);
+        when(userRepository.findById(USER_ID)).thenAnswer(invocation -> Optional.of(copy(stored)));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            stored = copy(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        principalCache = new PrincipalCache();
+        ReflectionTestUtils.setField(principalCache, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(principalCache, "maxSize", 100);
+        principalCache.init();
+
+        userService = new UserServiceImpl(userRepository, mock(PaymentCodeRepository.class),
+            mock(VipCodeRepository.class), mock(PasswordHasher.class), principalCache, mock(EntitlementCache.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void principalIsInvalidatedOnlyAfterCommit() {
+        assertEquals("alice", cachedUsername());
+
+        TransactionSynchronizationManager.initSynchronization();
+        userService.updateUser(USER_ID, rename("bob"));
+        // 提交前仍是旧的身份信息，不会被并发请求用未提交的数据重新加载
+        assertEquals("alice", cachedUsername());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals("bob", cachedUsername());
+    }
+
+    @Test
+    void rollbackKeepsCachedPrincipal() {
+        assertEquals("alice", cachedUsername());
+
+        TransactionSynchronizationManager.initSynchronization();
+        userService.updateUser(USER_ID, rename("bob"));
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals("alice", cachedUsername());
+    }
+
+    @Test
+    void invalidatesImmediatelyWithoutTransaction() {
+        assertEquals("alice", cachedUsername());
+
+        userService.updateUser(USER_ID, rename("bob"));
+
+        assertEquals("bob", cachedUsername());
+    }
+
+    private String cachedUsername() {
+        return principalCache.get(USER_ID, id -> userRepository.findById(id).orElseThrow()).getUsername();
+    }
+
+    private static UserUpdateDTO rename(String username) {
+        UserUpdateDTO updates = new UserUpdateDTO();
+        updates.setUsername(username);
+        return updates;
+    }
+
+    private static User copy(User user) {
+        User copy = new User(user.getUsername(), user.getHashedPassword(),
+            user.getSecurityQuestion(), user.getSecurityAnswer());
+        copy.setId(user.getId());
+        return copy;
+    }
+}
@@ -0,0 +1,67 @@
+package org.tokomoapp.tokomo_be.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CodeUtilTest {
+
+    @Test
+    void writesInBatchesOfAtMostBatchSize() {
+        List<Integer> batchSizes = new ArrayList<>();
+        List<String> codes = CodeUtil.insertUniqueCodes(25, 10, batch -> {
+            batchSizes.add(batch.size());
+            int[] counts = new int[batch.size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        assertEquals(25, codes.size());
+        assertEquals(25, new HashSet<>(codes).size());
+        assertEquals(List.of(10, 10, 5), batchSizes);
+    }
+
+    @Test
+    void regeneratesCodesRejectedByUniqueConstraint() {
+        Set<String> attempted = new HashSet<>();
+        List<List<String>> batches = new ArrayList<>();
+
+        // 第一批中偶数位置的码与库中已有码冲突，更新计数为 0，之后的批次全部写入
+        List<String> codes = CodeUtil.insertUniqueCodes(6, 4, batch -> {
+            batches.add(batch);
+            int[] counts = new int[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                assertTrue(attempted.add(batch.get(i)), "code generated twice: " + batch.get(i));
+                counts[i] = batches.size() == 1 && i % 2 == 0 ? 0 : 1;
+            }
+            return counts;
+        });
+
+        // 4 -> 写入 2，剩 4；4 -> 写入 4
+        assertEquals(2, batches.size());
+        assertEquals(4, batches.get(1).size());
+        List<String> expected = new ArrayList<>();
+        expected.add(batches.get(0).get(1));
+        expected.add(batches.get(0).get(3));
+        expected.addAll(batches.get(1));
+        assertEquals(expected, codes);
+    }
+
+    @Test
+    void treatsSuccessNoInfoAsInserted() {
+        List<String> codes = CodeUtil.insertUniqueCodes(3, 10, batch -> {
+            int[] counts = new int[batch.size()];
+            Arrays.fill(counts, Statement.SUCCESS_NO_INFO);
+            return counts;
+        });
+        assertEquals(3, codes.size());
+        assertEquals(32, codes.get(0).length());
+    }
+}
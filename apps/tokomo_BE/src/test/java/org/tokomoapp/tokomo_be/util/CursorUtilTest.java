@@ -0,0 +1,38 @@
+package org.tokomoapp.tokomo_be.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class CursorUtilTest {
+
+    @Test
+    void roundTripsIds() {
+        for (long id : new long[] {0L, 1L, 42L, -7L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(id, CursorUtil.decode(CursorUtil.encode(id)));
+        }
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = CursorUtil.encode(Long.MAX_VALUE);
+        assertFalse(cursor.contains("="));
+        assertFalse(cursor.contains("+"));
+        assertFalse(cursor.contains("/"));
+    }
+
+    @Test
+    void missingCursorStartsFromFirstPage() {
+        assertEquals(Long.MIN_VALUE, CursorUtil.decode(null));
+        assertEquals(Long.MIN_VALUE, CursorUtil.decode(""));
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode("not base64!"));
+        // 合法的 Base64（"abc"），但内容不是数字
+        assertThrows(IllegalArgumentException.class, () -> CursorUtil.decode("YWJj"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.tokomoapp.tokomo_be.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.tokomoapp.tokomo_be.model.VipCode;
+
+class ExcelStreamingReaderTest {
+
+    private static final LocalDateTime USED_AT = LocalDateTime.of(2024, 1, 15, 10, 30);
+
+    @TempDir
+    Path tempDir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = tempDir.resolve("vip.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            // 工作簿里的显示格式是 "1/15/24 10:30"，流式读取应统一转成 ISO 格式
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("m/d/yy h:mm"));
+
+            Sheet sheet = workbook.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("code");
+            header.createCell(1).setCellValue("validDays");
+
+            Row used = sheet.createRow(1);
+            used.createCell(0).setCellValue("VIP-A");
+            used.createCell(1).setCellValue(30);
+            used.createCell(2).setCellValue("已使用");
+            used.createCell(3).setCellValue("7");
+            used.createCell(4).setCellValue(USED_AT);
+            used.getCell(4).setCellStyle(dateStyle);
+
+            Row unused = sheet.createRow(2);
+            unused.createCell(0).setCellValue("VIP-B");
+            unused.createCell(1).setCellValue(7);
+            workbook.write(out);
+        }
+    }
+
+    @Test
+    void dateCellsAreFormattedAsIsoTimestamps() throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        ExcelStreamingReader.readRows(file.toString(), 5, (rowNum, values) -> rows.add(values));
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[] {"VIP-A", "30", "已使用", "7", "2024-01-15 10:30:00"}, rows.get(0));
+        assertEquals("VIP-B", rows.get(1)[0]);
+        assertEquals("7", rows.get(1)[1]);
+    }
+
+    @Test
+    void streamingVipReaderKeepsUsedAt() throws Exception {
+        assertTrue(ExcelStreamingReader.shouldStream(file.toString(), 0));
+
+        List<VipCode> codes = new ArrayList<>();
+        ExcelVipReader.readVipCodesFromExcel(file.toString(), 0, codes::add);
+
+        assertEquals(2, codes.size());
+        VipCode used = codes.get(0);
+        assertEquals("VIP-A", used.getCode());
+        assertEquals(30, used.getValidDays());
+        assertTrue(used.isUsed());
+        assertEquals(7L, used.getUsedBy());
+        assertEquals(USED_AT, used.getUsedAt());
+    }
+}
@@ -0,0 +1,97 @@
+package org.tokomoapp.tokomo_be.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tokomoapp.tokomo_be.model.User;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-bytes-long";
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = jwtUtil(60_000L);
+        user = new User("alice", "hash", "question", "answer");
+        user.setId(42L);
+    }
+
+    @Test
+    void cachedTokenSkipsSignatureCheck() {
+        String token = jwtUtil.generateToken(user);
+        assertEquals(42L, jwtUtil.parseUserId(token));
+        assertEquals(1, jwtUtil.getVerifiedCacheSize());
+
+        // 换成另一把密钥的解析器：命中缓存的 token 不再校验签名
+        ReflectionTestUtils.setField(jwtUtil, "parser", Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor("another-secret-key-that-is-at-least-32-bytes".getBytes(StandardCharsets.UTF_8)))
+            .build());
+        assertEquals(42L, jwtUtil.parseUserId(token));
+        // 未缓存的 token 仍走签名校验
+        User other = new User("bob", "hash", "question", "answer");
+        other.setId(43L);
+        assertNull(jwtUtil.parseUserId(jwtUtil.generateToken(other)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cacheIsKeyedByTokenDigest() {
+        String token = jwtUtil.generateToken(user);
+        jwtUtil.parseUserId(token);
+
+        Cache<String, ?> verifiedTokens = (Cache<String, ?>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens");
+        String key = verifiedTokens.asMap().keySet().iterator().next();
+        assertEquals(64, key.length());
+        assertFalse(key.contains(token));
+        assertFalse(token.contains(key));
+    }
+
+    @Test
+    void cachedTokenExpiresWithToken() throws InterruptedException {
+        JwtUtil shortLived = jwtUtil(1_500L);
+        String token = shortLived.generateToken(user);
+        assertEquals(42L, shortLived.parseUserId(token));
+        assertEquals(1, shortLived.getVerifiedCacheSize());
+
+        // exp 精确到秒，等待超过有效期后 token 与缓存条目都应失效
+        Thread.sleep(2_600L);
+        assertNull(shortLived.parseUserId(token));
+    }
+
+    @Test
+    void invalidTokensAreNotCached() {
+        assertNull(jwtUtil.parseUserId("not-a-token"));
+
+        String withoutExpiry = Jwts.builder()
+            .claim("userId", 42L)
+            .setIssuedAt(new Date())
+            .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+            .compact();
+        assertEquals(42L, jwtUtil.parseUserId(withoutExpiry));
+        assertEquals(0, jwtUtil.getVerifiedCacheSize());
+    }
+
+    private static JwtUtil jwtUtil(long expirationMillis) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "SECRET_KEY", SECRET);
+        ReflectionTestUtils.setField(util, "EXPIRATION_TIME", expirationMillis);
+        ReflectionTestUtils.setField(util, "verifiedCacheSize", 100);
+        util.init();
+        return util;
+    }
+}
@@ -0,0 +1,109 @@
+package org.tokomoapp.tokomo_be.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.tokomoapp.tokomo_be.exception.GlobalExceptionHandler;
+import org.tokomoapp.tokomo_be.exception.TooManyRequestsException;
+import org.tokomoapp.tokomo_be.model.ApiResponse;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.destroy();
+    }
+
+    @Test
+    void encodesAndMatchesOnPool() {
+        hasher = hasher(new BCryptPasswordEncoder(4), 1000);
+
+        String hash = hasher.encode("secret");
+        assertTrue(hasher.matches("secret", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertFalse(hasher.needsRehash(hash));
+    }
+
+    @Test
+    void fullQueueFailsFastWith429() throws Exception {
+        hasher = hasher(blockingEncoder(), 10_000);
+
+        // 一个任务占住唯一的线程，另一个占满长度为 1 的队列
+        new Thread(() -> hasher.encode("running")).start();
+        awaitCount(() -> hasher.getActiveCount(), 1);
+        new Thread(() -> hasher.encode("queued")).start();
+        awaitCount(() -> hasher.getQueueSize(), 1);
+
+        long start = System.nanoTime();
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class, () -> hasher.encode("rejected"));
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+
+        ResponseEntity<ApiResponse> response = new GlobalExceptionHandler().handleTooManyRequestsException(e);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("error", response.getBody().getStatus());
+    }
+
+    @Test
+    void slowHashTimesOutWith429() {
+        hasher = hasher(blockingEncoder(), 50);
+
+        assertThrows(TooManyRequestsException.class, () -> hasher.matches("secret", "hash"));
+    }
+
+    private PasswordHasher hasher(PasswordEncoder encoder, long timeoutMillis) {
+        PasswordHasher passwordHasher = new PasswordHasher(encoder);
+        ReflectionTestUtils.setField(passwordHasher, "threads", 1);
+        ReflectionTestUtils.setField(passwordHasher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwordHasher, "timeoutMillis", timeoutMillis);
+        passwordHasher.init();
+        return passwordHasher;
+    }
+
+    // 在测试结束前一直阻塞的编码器，模拟计算很慢的 BCrypt
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                block();
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                block();
+                return false;
+            }
+
+            private void block() {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+    }
+
+    private static void awaitCount(IntSupplier count, int expected) throws InterruptedException {
+        for (int i = 0; i < 500 && count.getAsInt() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, count.getAsInt());
+    }
+}
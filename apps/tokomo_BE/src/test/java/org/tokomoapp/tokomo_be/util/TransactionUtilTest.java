@@ -0,0 +1,60 @@
+package org.tokomoapp.tokomo_be.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class TransactionUtilTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void runsImmediatelyWithoutTransaction() {
+        TransactionUtil.afterCommit(runs::incrementAndGet);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void runsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionUtil.afterCommit(runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void skippedOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionUtil.afterCommit(runs::incrementAndGet);
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    void completionActionRunsOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionUtil.afterCompletion(runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertEquals(1, runs.get());
+    }
+}
@@ -1,6 +1,7 @@
 "use client";
 import { useState, useEffect } from 'react';
 import { showToast } from '@/components/Toast';
+import { waitForImportJob } from '@/services/api';
 
 interface Game {
   id: string;
@@ -128,6 +129,10 @@ export function GameManagement() {
 
       const data = await response.json();
       if (data.status === 'ok') {
+        const job = await waitForImportJob(data.data.jobId);
+        if (job.status !== 'COMPLETED') {
+          throw new Error(job.message || '上传失败');
+        }
         showToast('上传成功', 'success');
         loadGames();
       } else {
@@ -1,6 +1,7 @@
 "use client";
 import { useState, useEffect } from 'react';
 import { showToast } from '@/components/Toast';
+import { waitForImportJob } from '@/services/api';
 
 interface PaymentCode {
   id: string;
@@ -368,6 +369,10 @@ export function PaymentCodeManagement() {
 
                     const data = await response.json();
                     if (data.status === 'ok') {
+                      const job = await waitForImportJob(data.data.jobId);
+                      if (job.status !== 'COMPLETED') {
+                        throw new Error(job.message || '导入失败');
+                      }
                       showToast('导入成功', 'success');
                       loadCodes();
                       setShowImportModal(false);
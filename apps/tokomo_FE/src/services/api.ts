@@ -36,4 +36,24 @@ export const fetchWithAuth = async (url: string, options: RequestInit = {}) => {
       error: error instanceof Error ? error.message : '未知错误'
     };
   }
-};
\ No newline at end of file
+};
+
+// 管理端上传以后台任务执行：轮询任务状态直到结束，返回最终的任务信息
+export const waitForImportJob = async (jobId: string, intervalMs = 1000) => {
+  for (;;) {
+    const response = await fetch(`//api.tokomoapp.org/api/admin/jobs/${jobId}`, {
+      headers: {
+        'Authorization': `Bearer ${localStorage.getItem('token')}`
+      }
+    });
+    const data = await response.json();
+    if (data.status !== 'ok') {
+      throw new Error(data.message);
+    }
+    const job = data.data;
+    if (['COMPLETED', 'FAILED', 'CANCELLED'].includes(job.status)) {
+      return job;
+    }
+    await new Promise(resolve => setTimeout(resolve, intervalMs));
+  }
+};